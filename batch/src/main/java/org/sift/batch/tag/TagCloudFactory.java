@@ -21,6 +21,7 @@ import java.util.List;
 
 import org.sift.runtime.Fields;
 import org.sift.runtime.Tuple;
+import org.sift.runtime.TupleKey;
 import org.sift.tagcloud.ui.DisplayTag;
 import org.sift.tagcloud.ui.DisplayTagCloud;
 
@@ -55,8 +56,7 @@ public class TagCloudFactory {
 	 * list is generated based on this tuple. The rest of the Tuples should be similar */
 	public TagCloudFactory(Tuple tuple) {
 		this.tagCloudList = new ArrayList<DisplayTagCloud<DisplayTag>>();
-		String key = tuple.getString(Fields.KEY);
-		String subject = key.substring(0, key.indexOf(Tuple.KEY_SEP_CHAR));
+		String subject = TupleKey.valueOf(tuple.getValue(Fields.KEY)).getSubject();
 		if(tuple.contains(Fields.SENTIMENT)) {
 			DisplayTagCloud<DisplayTag> tagCloudPositive = new DisplayTagCloud<DisplayTag>(subject+"_"+POSITIVE_LABEL);		
 			DisplayTagCloud<DisplayTag> tagCloudNegative = new DisplayTagCloud<DisplayTag>(subject+"_"+NEGATIVE_LABEL);		
@@ -20,6 +20,7 @@ import java.util.Stack;
 
 import org.sift.runtime.Fields;
 import org.sift.runtime.Tuple;
+import org.sift.runtime.TupleKey;
 import org.sift.runtime.spi.OutputCollector;
 import org.sift.tagcloud.ui.DisplayTag;
 import org.sift.tagcloud.ui.DisplayTagCloud;
@@ -61,14 +62,13 @@ public class TagCloudInputReader implements ItemReader<DisplayTagCloud<DisplayTa
 				return null;
 			}
 			if(this.tagCloudList.empty()) { //Populate the stack
-				String[] tupleValues = this.getSubjectAndTag(this.collector.getEmittedTuples().get(0).getString(Fields.KEY));
-				String subject = tupleValues[0];
+				TupleKey subjectKey = TupleKey.valueOf(this.collector.getEmittedTuples().get(0).getValue(Fields.KEY));
 				this.tagCloudFactory = new TagCloudFactory(this.collector.getEmittedTuples().get(0));
 				while(!this.collector.getEmittedTuples().isEmpty()) {
 					Tuple t = this.collector.getEmittedTuples().get(0);
-					tupleValues = this.getSubjectAndTag(t.getString(Fields.KEY));
-					String displayText = this.getSubjectAndTag(t.getString(Fields.KEY))[1];
-					if (tupleValues[0].equals(subject)) {  //Display tag is not an empty string
+					TupleKey tupleKey = TupleKey.valueOf(t.getValue(Fields.KEY));
+					String displayText = tupleKey.getTag();
+					if (tupleKey.hasSameSubject(subjectKey)) {  //Display tag is not an empty string
 						if(displayText.length()>1) {
 							DisplayTag displayTag = new DisplayTag(displayText, (Integer)t.getList(Fields.VALUES).get(0));
 							for (Object source: t.getList(Fields.SOURCES)) {
@@ -89,18 +89,6 @@ public class TagCloudInputReader implements ItemReader<DisplayTagCloud<DisplayTa
 		}
 	}
 
-	/**
-	 * Helper method to get the tag cloud subject and the tag display text for a the specified Tuple key
-	 * @param key the Tuple key
-	 * @return String array of tag cloud subject and the tag display text
-	 */
-	private String[] getSubjectAndTag(String key) {
-		String[] values = new String[2];
-		values[0] = key.substring(0, key.indexOf(Tuple.KEY_SEP_CHAR));
-		values[1] = key.substring(key.indexOf(Tuple.KEY_SEP_CHAR) + 1, key.length());
-		return values;
-	}
-
 	/** Getter/Setter methods */
 	public OutputCollector getCollector() {
 		return this.collector;
@@ -17,9 +17,8 @@ package org.sift.batch.tag;
 
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedList;
-import java.util.List;
 
+import org.sift.runtime.TopKSelector;
 import org.sift.tagcloud.ui.DisplayTag;
 import org.sift.tagcloud.ui.DisplayTagCloud;
 import org.springframework.batch.item.ItemProcessor;
@@ -41,18 +40,25 @@ public class TagCloudProcessor implements ItemProcessor<DisplayTagCloud<DisplayT
 
 	/**
 	 * Interface method implementation. Sorts the tag values by descending order of weights and retains only the top ones that fall witnin
-	 * {@link TagCloudProcessor#getMaxTags()}
+	 * {@link TagCloudProcessor#getMaxTags()}. When the tag cloud has more tags than that, the top tags are selected using a bounded heap instead of sorting
+	 * all tags. Tags of equal weight retain their relative order in either case.
 	 * @see org.springframework.batch.item.ItemProcessor#process(java.lang.Object)
 	 */
 	public DisplayTagCloud<DisplayTag> process(DisplayTagCloud<DisplayTag> tagCloud) throws Exception {
-		Collections.sort(tagCloud.getTagsList(), this);
-		List<DisplayTag> finalDisplayTags = new LinkedList<DisplayTag>();
-		int maxSize = Math.min(tagCloud.getTagsList().size(), this.getMaxTags());
-		for (int i=0; i < maxSize; i++) {
-			finalDisplayTags.add(tagCloud.getTagsList().get(i));
+		if (tagCloud.getTagsList().size() <= this.getMaxTags()) {
+			Collections.sort(tagCloud.getTagsList(), this);
+			return tagCloud;
+		}
+		if (this.getMaxTags() <= 0) {
+			tagCloud.removeAllTags();
+			return tagCloud;
+		}
+		TopKSelector<DisplayTag> selector = new TopKSelector<DisplayTag>(this.getMaxTags(), this);
+		for (DisplayTag tag : tagCloud.getTagsList()) {
+			selector.add(tag);
 		}
 		tagCloud.removeAllTags();
-		for (DisplayTag tag : finalDisplayTags) {
+		for (DisplayTag tag : selector.getSelected()) {
 			tagCloud.addTag(tag);
 		}
 		return tagCloud;
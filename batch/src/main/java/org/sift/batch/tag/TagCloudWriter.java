@@ -19,6 +19,7 @@ import java.util.List;
 
 import org.sift.tagcloud.Tag;
 import org.sift.tagcloud.TagCloud;
+import org.sift.tagcloud.impl.service.TagCloudRenderingService;
 import org.sift.tagcloud.spi.service.PersistenceService;
 import org.sift.tagcloud.ui.DisplayTag;
 import org.sift.tagcloud.ui.DisplayTagCloud;
@@ -37,13 +38,18 @@ public class TagCloudWriter<T extends Tag, S extends TagCloud<T>> implements Ite
 	private List<PersistenceService<T,S>> persistenceServices;
 
 	/**
-	 * Interface method implementation. Persists the 
+	 * Interface method implementation. Persists the specified tag clouds using each of the configured persistence services in turn. A
+	 * {@link TagCloudRenderingService} is given all the tag clouds at once, so that it may persist them concurrently
 	 * @see org.springframework.batch.item.ItemWriter#write(java.util.List)
 	 */
 	@SuppressWarnings("unchecked")
 	public void write(List<? extends DisplayTagCloud<DisplayTag>> tagClouds) throws Exception {
-		for (DisplayTagCloud<DisplayTag> dtc : tagClouds) {
-			for(PersistenceService<T,S> persistenceService: this.persistenceServices) {
+		for(PersistenceService<T,S> persistenceService: this.persistenceServices) {
+			if (persistenceService instanceof TagCloudRenderingService) {
+				((TagCloudRenderingService<T,S>)persistenceService).persistTagClouds((List<S>)tagClouds);
+				continue;
+			}
+			for (DisplayTagCloud<DisplayTag> dtc : tagClouds) {
 				persistenceService.persistTagCloud((S)dtc);
 			}
 		}
@@ -15,6 +15,12 @@
  */
 package org.sift.batch.tuple;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemStream;
@@ -34,6 +40,10 @@ import org.trpr.platform.core.spi.logging.Logger;
  * The <code>MultiThreadedMultiResourceItemReader</code> class is an implementation of the Spring {@link ItemReader}, {@link ItemStream} interfaces
  * that reads batch step input data from multiple configured {@link Resource} instances. This class may be used in step configurations that use {@link ThreadPoolTaskExecutor}
  * i.e. can be used in multi-threaded reads. This class serializes access on {@link ItemReader#read()} across calling threads.
+ * <p>
+ * When a 'delegateFactory' is set, Resource instances are instead read in parallel. Each calling thread claims the next unread Resource and reads it
+ * through a delegate of its own, created by the factory, so that threads do not wait on each other for every item. A thread that finds all Resource
+ * instances claimed continues with one that another thread is still reading, so that no thread completes before all data has been read.
  * 
  * @author Regunath B
  * @version 1.0, 15 Apr 2013
@@ -58,21 +68,37 @@ public class MultiThreadedMultiResourceItemReader <T> implements ItemReader<T>,
 	/** The index position of the current Resource*/
 	private int currentResourceIndex = INVALID_INDEX;
 	
+	/** The factory of delegates for reading Resource instances in parallel, one delegate per Resource. May be null*/
+	private ObjectFactory<? extends ResourceAwareItemReaderItemStream<? extends T>> delegateFactory;
+	
+	/** The index position of the next Resource to be claimed, when reading Resource instances in parallel*/
+	private AtomicInteger nextResourceIndex = new AtomicInteger();
+	
+	/** The ResourceReader instances of Resource instances that are claimed and not fully read, when reading Resource instances in parallel*/
+	private List<ResourceReader> openResourceReaders = new CopyOnWriteArrayList<ResourceReader>();
+	
+	/** The ResourceReader used by each calling thread, replaced on close so that readers of an earlier run are not used*/
+	private volatile ThreadLocal<ResourceReader> threadResourceReader = new ThreadLocal<ResourceReader>();
+	
 	/**
-	 * Interface method implementation. Checks if the 'delegate' and 'resources' properties have been set
+	 * Interface method implementation. Checks if the 'delegate' or 'delegateFactory', and the 'resources' properties have been set
 	 * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
 	 */
 	public void afterPropertiesSet() throws Exception {
-		Assert.notNull(delegate, "The 'delegate' may not be null");
+		Assert.isTrue(delegate != null || delegateFactory != null, "Atleast one of 'delegate' or 'delegateFactory' must be set");
 		Assert.notNull(resources, "The 'resources' may not be null");		
 	}
 
 	/**
 	 * Interface method implementation. Opens Resource instance as required until all are exhausted. Reads and returns a single item using the
-	 * delegate or null when all resources have been read. This method serializes access across calling calling threads.
+	 * delegate or null when all resources have been read. This method serializes access across calling calling threads, unless a 'delegateFactory'
+	 * is set.
 	 * @see org.springframework.batch.item.ItemReader#read()
 	 */
 	public T read() throws Exception, UnexpectedInputException, ParseException,NonTransientResourceException {
+		if (this.getDelegateFactory() != null) {
+			return this.readInParallel();
+		}
 		synchronized(MONITOR) {
 			if (this.currentResourceIndex == INVALID_INDEX) {
 				this.openNextAvailableResource();
@@ -94,8 +120,18 @@ public class MultiThreadedMultiResourceItemReader <T> implements ItemReader<T>,
 	 * @see org.springframework.batch.item.ItemStream#close()
 	 */
 	public void close() throws ItemStreamException {
-		this.delegate.close();
+		if (this.delegate != null) {
+			this.delegate.close();
+		}
 		this.currentResourceIndex = INVALID_INDEX;
+		for (ResourceReader resourceReader : this.openResourceReaders) {
+			if (resourceReader.delegate != null) {
+				resourceReader.delegate.close();
+			}
+		}
+		this.openResourceReaders.clear();
+		this.nextResourceIndex.set(0);
+		this.threadResourceReader = new ThreadLocal<ResourceReader>();
 	}
 	
 	/**
@@ -116,10 +152,15 @@ public class MultiThreadedMultiResourceItemReader <T> implements ItemReader<T>,
 	}
 	
 	/**
-	 * Returns the current Resource being read of null, if none
+	 * Returns the current Resource being read of null, if none. When reading Resource instances in parallel, returns the Resource being read by the
+	 * calling thread
 	 * @return Resource bing read
 	 */
 	public Resource getCurrentResource() {
+		if (this.getDelegateFactory() != null) {
+			ResourceReader resourceReader = this.threadResourceReader.get();
+			return resourceReader == null ? null : this.getResources()[resourceReader.resourceIndex];
+		}
 		if (this.currentResourceIndex >= this.getResources().length) {
 			return null;
 		}
@@ -141,6 +182,88 @@ public class MultiThreadedMultiResourceItemReader <T> implements ItemReader<T>,
 		LOGGER.info("Opened Resource {} for read. Resource Index, Resource Length is : [" + this.currentResourceIndex +","+ this.getResources().length + "]", this.getResources()[this.currentResourceIndex]);
 	}
 
+	/**
+	 * Helper method to read a single item from the Resource read by the calling thread, claiming the next unread Resource or continuing with one that
+	 * another thread is reading as required. Returns null when all Resource instances have been read
+	 * @throws Exception in case of errors in opening or reading a Resource
+	 */
+	private T readInParallel() throws Exception {
+		ThreadLocal<ResourceReader> threadResourceReader = this.threadResourceReader;
+		while (true) {
+			ResourceReader resourceReader = threadResourceReader.get();
+			if (resourceReader == null) {
+				resourceReader = this.claimNextResource(threadResourceReader);
+				if (resourceReader == null) {
+					if (this.openResourceReaders.isEmpty()) { // all Resource instances have been read
+						return null;
+					}
+					try {
+						resourceReader = this.openResourceReaders.get(0);
+					} catch (IndexOutOfBoundsException e) {
+						continue; // the reader finished in the meantime
+					}
+				}
+				threadResourceReader.set(resourceReader);
+			}
+			// the lock is contended only when threads share a Resource, after all Resource instances have been claimed
+			resourceReader.lock.lock();
+			try {
+				if (!resourceReader.finished) {
+					T item = resourceReader.delegate.read();
+					if (item != null) {
+						return item;
+					}
+					resourceReader.finished = true;
+					resourceReader.delegate.close();
+					this.openResourceReaders.remove(resourceReader);
+					LOGGER.info("Completed read of Resource {}. Resource Index, Resource Length is : [" + resourceReader.resourceIndex + ","
+							+ this.getResources().length + "]", this.getResources()[resourceReader.resourceIndex]);
+				}
+			} finally {
+				resourceReader.lock.unlock();
+			}
+			threadResourceReader.remove();
+		}
+	}
+
+	/**
+	 * Helper method to claim the next unread Resource and open it using a new delegate, for the calling thread. Returns null if all Resource instances
+	 * have been claimed
+	 * @throws Exception in case of errors in opening the Resource
+	 */
+	private ResourceReader claimNextResource(ThreadLocal<ResourceReader> threadResourceReader) throws Exception {
+		ResourceReader resourceReader;
+		// the Resource is claimed and its reader registered atomically, so that a thread finding all Resource instances claimed finds the reader too.
+		// The reader stays locked until its delegate is opened, so that threads continuing with the Resource wait for it
+		synchronized(this.openResourceReaders) {
+			int resourceIndex = this.nextResourceIndex.getAndIncrement();
+			if (resourceIndex >= this.getResources().length) {
+				return null;
+			}
+			resourceReader = new ResourceReader(resourceIndex);
+			resourceReader.lock.lock();
+			this.openResourceReaders.add(resourceReader);
+		}
+		boolean opened = false;
+		try {
+			resourceReader.delegate = this.getDelegateFactory().getObject();
+			resourceReader.delegate.setResource(this.getResources()[resourceReader.resourceIndex]);
+			// the delegate maps lines using the calling thread's Resource, so the thread must own the reader before the delegate is opened
+			threadResourceReader.set(resourceReader);
+			resourceReader.delegate.open(new ExecutionContext());
+			opened = true;
+		} finally {
+			if (!opened) {
+				threadResourceReader.remove();
+				resourceReader.finished = true;
+				this.openResourceReaders.remove(resourceReader);
+			}
+			resourceReader.lock.unlock();
+		}
+		LOGGER.info("Opened Resource {} for read. Resource Index, Resource Length is : [" + resourceReader.resourceIndex +","+ this.getResources().length + "]", this.getResources()[resourceReader.resourceIndex]);
+		return resourceReader;
+	}
+
 	/** Getter/setter methods */
 	public ResourceAwareItemReaderItemStream<? extends T> getDelegate() {
 		return this.delegate;
@@ -148,6 +271,17 @@ public class MultiThreadedMultiResourceItemReader <T> implements ItemReader<T>,
 	public void setDelegate(ResourceAwareItemReaderItemStream<? extends T> delegate) {
 		this.delegate = delegate;
 	}
+	public ObjectFactory<? extends ResourceAwareItemReaderItemStream<? extends T>> getDelegateFactory() {
+		return this.delegateFactory;
+	}
+	/**
+	 * Sets the factory of delegates for reading Resource instances in parallel. The factory must return a new delegate every time, for e.g. an
+	 * ObjectFactoryCreatingFactoryBean for a prototype scoped reader bean. The 'delegate' is not used when this is set
+	 * @param delegateFactory the factory of delegates, null to serialize reads on the 'delegate'
+	 */
+	public void setDelegateFactory(ObjectFactory<? extends ResourceAwareItemReaderItemStream<? extends T>> delegateFactory) {
+		this.delegateFactory = delegateFactory;
+	}
 	public Resource[] getResources() {
 		return this.resources;
 	}
@@ -156,4 +290,17 @@ public class MultiThreadedMultiResourceItemReader <T> implements ItemReader<T>,
 	}		
 	/** End getter/setter methods */
 
+	/**
+	 * The delegate reading a Resource when reading Resource instances in parallel, and the lock that serializes its use by threads sharing the Resource
+	 */
+	private class ResourceReader {
+		private ReentrantLock lock = new ReentrantLock();
+		private ResourceAwareItemReaderItemStream<? extends T> delegate;
+		private int resourceIndex;
+		private boolean finished;
+		ResourceReader(int resourceIndex) {
+			this.resourceIndex = resourceIndex;
+		}
+	}
+
 }
\ No newline at end of file
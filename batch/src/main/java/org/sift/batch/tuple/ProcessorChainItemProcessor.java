@@ -19,14 +19,18 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Stack;
 
+import org.sift.runtime.ProcessorPipeline;
 import org.sift.runtime.Tuple;
 import org.sift.runtime.impl.MemOutputCollector;
+import org.sift.runtime.spi.BatchProcessor;
 import org.sift.runtime.spi.Processor;
 import org.springframework.batch.item.ItemProcessor;
 
 /**
  * The <code>ProcessorChainItemProcessor</code> is an implementation of the Spring Batch {@link ItemProcessor} implementation that subjects the
- * passed in data input to a series of Sift runtime {@link Processor} implementations.
+ * passed in data input to a series of Sift runtime {@link Processor} implementations. Tuple instances are streamed through the Processor chain using a 
+ * {@link ProcessorPipeline}, unless the chain contains a {@link BatchProcessor} in which case the output of each Processor is collected before it is
+ * passed on to the next one.
  * 
  * @author Regunath B
  * @version 1.0, 28 Jan 2013
@@ -35,6 +39,12 @@ public class ProcessorChainItemProcessor<T,S> implements ItemProcessor<T,S> {
 
 	/** The list of Processor instances to pass the Tuple through */
 	private List<Processor> processors = new LinkedList<Processor>();
+	
+	/** The ProcessorPipeline over the configured Processor instances, built when the Processor instances are set */
+	private ProcessorPipeline pipeline = new ProcessorPipeline();
+	
+	/** Indicates if the configured Processor instances may be streamed using the ProcessorPipeline */
+	private boolean streamable = true;
 
 	/**
 	 * Interface method implementation. Subjects the specified Tuple through a set of configured {@link Processor} instances, 
@@ -43,6 +53,11 @@ public class ProcessorChainItemProcessor<T,S> implements ItemProcessor<T,S> {
 	@SuppressWarnings("unchecked")
 	public S process(T paramTuple) throws Exception {
 		Tuple tuple = (Tuple) paramTuple;
+		if (this.streamable) {
+			MemOutputCollector collector = new MemOutputCollector();
+			this.pipeline.process(tuple, collector);
+			return (S)collector.getEmittedTuples();
+		}
 		//Stack holding list of tuples to be passed on to the next Processor
 		Stack<Tuple> returnedTuples = new Stack<Tuple>();
 		returnedTuples.push(tuple);
@@ -68,6 +83,10 @@ public class ProcessorChainItemProcessor<T,S> implements ItemProcessor<T,S> {
 	}
 	public void setProcessors(List<Processor> processors) {
 		this.processors = processors;
+		ProcessorPipeline pipeline = new ProcessorPipeline();
+		pipeline.setProcessors(processors);
+		this.streamable = pipeline.isStreamable();
+		this.pipeline = pipeline;
 	}
 
 }
@@ -0,0 +1,476 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.batch.tuple;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.sift.runtime.Tuple;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.NonTransientResourceException;
+import org.springframework.batch.item.ParseException;
+import org.springframework.batch.item.ReaderNotOpenException;
+import org.springframework.batch.item.UnexpectedInputException;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.backportconcurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+import org.trpr.platform.core.impl.logging.LogFactory;
+import org.trpr.platform.core.spi.logging.Logger;
+
+/**
+ * The <code>SplitFileItemReader</code> class is an implementation of the Spring {@link ItemReader}, {@link ItemStream} interfaces that reads a single
+ * large file in parallel. The file is divided into a number of byte ranges i.e. splits, whose boundaries are moved to the start of the next line. Each
+ * calling thread claims the next unread split and reads it using positional {@link FileChannel} reads, so that threads do not wait on each other for
+ * every item. This class may be used in step configurations that use {@link ThreadPoolTaskExecutor}, with as many splits as there are threads.
+ * <p>
+ * Lines are mapped into {@link Tuple} instances using the {@link LineMapper}, with line numbers that count from the start of the file. A thread that
+ * claims a split first counts the lines in it, and then waits for the counts of the earlier splits, which are counted at the same time by the threads
+ * that claimed them. A thread that finds all splits claimed continues with a split that another thread is still counting or reading, waiting for its
+ * line numbers if required, so that no thread completes before the whole file has been read.
+ * <p>
+ * The file encoding must represent a new line as a single byte that does not occur within other characters, as is the case for UTF-8, US-ASCII and the
+ * ISO-8859 family of encodings. A restart/resume will start from the beginning of the file.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class SplitFileItemReader implements ItemReader<Tuple>, ItemStream, InitializingBean {
+
+	/** Logger instance for this class*/
+	private static final Logger LOGGER = LogFactory.getLogger(SplitFileItemReader.class);
+
+	/** The default file encoding*/
+	private static final String DEFAULT_ENCODING = "UTF-8";
+
+	/** The line separator bytes. A carriage return before a new line is dropped from the line*/
+	private static final byte NEW_LINE = '\n';
+	private static final byte CARRIAGE_RETURN = '\r';
+
+	/** The size of the buffer of each split, and of the buffer used to find split boundaries*/
+	private static final int BUFFER_SIZE = 256 * 1024;
+	private static final int BOUNDARY_BUFFER_SIZE = 8 * 1024;
+
+	/** The file to read*/
+	private Resource resource;
+
+	/** The LineMapper for mapping lines into Tuple instances*/
+	private LineMapper<Tuple> lineMapper;
+
+	/** The number of byte ranges the file is divided into*/
+	private int splits = Runtime.getRuntime().availableProcessors();
+
+	/** The file encoding*/
+	private String encoding = DEFAULT_ENCODING;
+	private Charset charset = Charset.forName(DEFAULT_ENCODING);
+
+	/** The channel for reading the file and the size of the file, set when this reader is open*/
+	private volatile FileChannel fileChannel;
+	private long fileSize;
+
+	/** The index position of the next split to be claimed*/
+	private AtomicInteger nextSplitIndex = new AtomicInteger();
+
+	/** The number of lines in each split, and latches that are released once the lines in each split have been counted*/
+	private long[] splitLineCounts;
+	private CountDownLatch[] splitsCounted;
+
+	/** Set when the lines of a split could not be counted, as the line numbers of later splits are then not known*/
+	private volatile boolean countFailed;
+
+	/** The SplitReader instances of splits that are claimed and not fully read*/
+	private List<SplitReader> openSplitReaders = new CopyOnWriteArrayList<SplitReader>();
+
+	/** The SplitReader used by each calling thread, replaced on close so that readers of an earlier run are not used*/
+	private volatile ThreadLocal<SplitReader> threadSplitReader = new ThreadLocal<SplitReader>();
+
+	/**
+	 * Interface method implementation. Checks if the 'resource' and 'lineMapper' properties have been set
+	 * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+	 */
+	public void afterPropertiesSet() throws Exception {
+		Assert.notNull(this.resource, "The 'resource' may not be null");
+		Assert.notNull(this.lineMapper, "The 'lineMapper' may not be null");
+	}
+
+	/**
+	 * Interface method implementation. Opens the file for reading and computes the splits
+	 * @see org.springframework.batch.item.ItemStream#open(org.springframework.batch.item.ExecutionContext)
+	 */
+	public void open(ExecutionContext ctx) throws ItemStreamException {
+		try {
+			FileChannel fileChannel = new RandomAccessFile(this.getResource().getFile(), "r").getChannel();
+			this.fileSize = fileChannel.size();
+			this.nextSplitIndex.set(0);
+			this.splitLineCounts = new long[this.getSplits()];
+			this.splitsCounted = new CountDownLatch[this.getSplits()];
+			for (int i = 0; i < this.splitsCounted.length; i++) {
+				this.splitsCounted[i] = new CountDownLatch(1);
+			}
+			this.countFailed = false;
+			this.fileChannel = fileChannel;
+		} catch (IOException e) {
+			throw new ItemStreamException("Error opening Resource : " + this.getResource() + " for read", e);
+		}
+		LOGGER.info("Opened Resource {} for read. File size, Splits is : [" + this.fileSize + "," + this.getSplits() + "]", this.getResource());
+	}
+
+	/**
+	 * Interface method implementation. Reads and returns a single item from the split read by the calling thread, claiming the next unread split or
+	 * continuing with one that another thread is reading as required. Returns null when the whole file has been read
+	 * @see org.springframework.batch.item.ItemReader#read()
+	 */
+	public Tuple read() throws Exception, UnexpectedInputException, ParseException, NonTransientResourceException {
+		if (this.fileChannel == null) {
+			throw new ReaderNotOpenException("Reader must be open before it can be read");
+		}
+		ThreadLocal<SplitReader> threadSplitReader = this.threadSplitReader;
+		while (true) {
+			SplitReader splitReader = threadSplitReader.get();
+			if (splitReader == null) {
+				splitReader = this.claimNextSplit();
+				if (splitReader == null) {
+					if (this.openSplitReaders.isEmpty()) { // the whole file has been read
+						return null;
+					}
+					try {
+						splitReader = this.openSplitReaders.get(0);
+					} catch (IndexOutOfBoundsException e) {
+						continue; // the split was read fully in the meantime
+					}
+				}
+				threadSplitReader.set(splitReader);
+			}
+			// the lock is contended only when threads share a split, after all splits have been claimed
+			splitReader.lock.lock();
+			try {
+				if (!splitReader.finished) {
+					String line = splitReader.readLine();
+					if (line != null) {
+						if (splitReader.lineNumber > Integer.MAX_VALUE) {
+							throw new ParseException("Line number : " + splitReader.lineNumber + " exceeds the line numbers supported by LineMapper");
+						}
+						return this.getLineMapper().mapLine(line, (int)splitReader.lineNumber);
+					}
+					splitReader.finished = true;
+					this.openSplitReaders.remove(splitReader);
+				}
+			} finally {
+				splitReader.lock.unlock();
+			}
+			threadSplitReader.remove();
+		}
+	}
+
+	/**
+	 * Interface method implementation. Closes the file
+	 * @see org.springframework.batch.item.ItemStream#close()
+	 */
+	public void close() throws ItemStreamException {
+		FileChannel fileChannel = this.fileChannel;
+		this.fileChannel = null;
+		this.openSplitReaders.clear();
+		this.threadSplitReader = new ThreadLocal<SplitReader>();
+		if (fileChannel != null) {
+			try {
+				fileChannel.close();
+			} catch (IOException e) {
+				throw new ItemStreamException("Error closing Resource : " + this.getResource(), e);
+			}
+		}
+	}
+
+	/**
+	 * Interface method implementation. Does nothing and implies that a restart/resume will start from the beginning of the file
+	 * @see org.springframework.batch.item.ItemStream#update(org.springframework.batch.item.ExecutionContext)
+	 */
+	public void update(ExecutionContext ctx) throws ItemStreamException {
+		// does nothing
+	}
+
+	/**
+	 * Helper method to claim the next unread split, count its lines and wait for the line counts of earlier splits. Returns null if all splits have
+	 * been claimed
+	 * @throws Exception in case of errors in reading the file
+	 */
+	private SplitReader claimNextSplit() throws Exception {
+		SplitReader splitReader;
+		// the split is claimed and its reader registered atomically, so that a thread finding all splits claimed finds the reader too. The reader
+		// stays locked until its first line number is known, so that threads continuing with the split wait for it
+		synchronized(this.openSplitReaders) {
+			int splitIndex = this.nextSplitIndex.getAndIncrement();
+			if (splitIndex >= this.getSplits()) {
+				return null;
+			}
+			splitReader = new SplitReader(this.fileChannel, splitIndex);
+			splitReader.lock.lock();
+			this.openSplitReaders.add(splitReader);
+		}
+		boolean claimed = false;
+		try {
+			this.countLines(splitReader);
+			long lineNumber = 0;
+			for (int i = 0; i < splitReader.splitIndex; i++) {
+				this.splitsCounted[i].await();
+				lineNumber += this.splitLineCounts[i];
+			}
+			if (this.countFailed) {
+				throw new IOException("Error counting lines in Resource : " + this.getResource() + ". Line numbers of split : " + splitReader.splitIndex
+						+ " are not known");
+			}
+			splitReader.lineNumber = lineNumber;
+			claimed = true;
+		} finally {
+			if (!claimed) {
+				splitReader.finished = true;
+				this.openSplitReaders.remove(splitReader);
+			}
+			splitReader.lock.unlock();
+		}
+		LOGGER.info("Claimed split {} for read. Start, End, First line number is : [" + splitReader.position + "," + splitReader.end + ","
+				+ (splitReader.lineNumber + 1) + "]", splitReader.splitIndex);
+		return splitReader;
+	}
+
+	/**
+	 * Helper method to find the byte range of the specified split and count the lines in it. The latch of the split is released on failure too, so
+	 * that threads reading later splits do not wait forever
+	 * @throws IOException in case of errors in reading the file
+	 */
+	private void countLines(SplitReader splitReader) throws IOException {
+		boolean counted = false;
+		try {
+			splitReader.position = this.findSplitStart(splitReader.splitIndex);
+			splitReader.end = Math.max(splitReader.position, this.findSplitStart(splitReader.splitIndex + 1));
+			this.splitLineCounts[splitReader.splitIndex] = splitReader.countLines();
+			counted = true;
+		} finally {
+			if (!counted) {
+				this.countFailed = true;
+			}
+			this.splitsCounted[splitReader.splitIndex].countDown();
+		}
+	}
+
+	/**
+	 * Helper method to return the byte position where the split of the specified index starts i.e. the start of the first line that starts at or after
+	 * the nominal start of the split. Returns the file size for the index after the last split
+	 * @throws IOException in case of errors in reading the file
+	 */
+	private long findSplitStart(int splitIndex) throws IOException {
+		if (splitIndex == 0) {
+			return 0;
+		}
+		if (splitIndex >= this.getSplits()) {
+			return this.fileSize;
+		}
+		long nominalStart = this.fileSize / this.getSplits() * splitIndex + this.fileSize % this.getSplits() * splitIndex / this.getSplits();
+		if (nominalStart == 0) {
+			return 0;
+		}
+		// a line that starts exactly at the nominal start belongs to this split, so the search starts at the byte before it
+		long position = nominalStart - 1;
+		ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_BUFFER_SIZE);
+		while (position < this.fileSize) {
+			buffer.clear();
+			int count = this.fileChannel.read(buffer, position);
+			if (count <= 0) {
+				break;
+			}
+			byte[] bytes = buffer.array();
+			for (int i = 0; i < count; i++) {
+				if (bytes[i] == NEW_LINE) {
+					return position + i + 1;
+				}
+			}
+			position += count;
+		}
+		return this.fileSize;
+	}
+
+	/** Getter/setter methods */
+	public Resource getResource() {
+		return this.resource;
+	}
+	public void setResource(Resource resource) {
+		this.resource = resource;
+	}
+	public LineMapper<Tuple> getLineMapper() {
+		return this.lineMapper;
+	}
+	/**
+	 * Sets the LineMapper for mapping lines into Tuple instances. The LineMapper is shared by all calling threads and must be thread safe, for e.g. a
+	 * {@link TupleLineMapper} having the 'resource' set
+	 * @param lineMapper the LineMapper for mapping lines
+	 */
+	public void setLineMapper(LineMapper<Tuple> lineMapper) {
+		this.lineMapper = lineMapper;
+	}
+	public int getSplits() {
+		return this.splits;
+	}
+	/**
+	 * Sets the number of byte ranges the file is divided into. Defaults to the number of available processors
+	 * @param splits the number of splits, usually the number of threads reading the file
+	 */
+	public void setSplits(int splits) {
+		Assert.isTrue(splits > 0, "The 'splits' must be positive");
+		this.splits = splits;
+	}
+	public String getEncoding() {
+		return this.encoding;
+	}
+	/**
+	 * Sets the file encoding. Defaults to UTF-8
+	 * @param encoding the file encoding, that must represent a new line as a single byte
+	 */
+	public void setEncoding(String encoding) {
+		Charset charset = Charset.forName(encoding);
+		Assert.isTrue(Arrays.equals("\n".getBytes(charset), new byte[] {NEW_LINE}), "The 'encoding' must represent a new line as a single byte : " + encoding);
+		this.encoding = encoding;
+		this.charset = charset;
+	}
+	/** End getter/setter methods */
+
+	/**
+	 * Reads the lines of a split, and the lock that serializes its use by threads sharing the split
+	 */
+	private class SplitReader {
+
+		private ReentrantLock lock = new ReentrantLock();
+		private FileChannel fileChannel;
+		private int splitIndex;
+
+		/** Set once the whole split has been read, or if the split could not be claimed*/
+		private boolean finished;
+
+		/** The position of the next byte to read into the buffer, and the position where the split ends*/
+		private long position;
+		private long end;
+
+		/** The buffer, and the start and end of the bytes in it that have not been made into lines*/
+		private byte[] buffer = new byte[BUFFER_SIZE];
+		private int bufferStart;
+		private int bufferEnd;
+
+		/** The line number of the last line read*/
+		private long lineNumber;
+
+		SplitReader(FileChannel fileChannel, int splitIndex) {
+			this.fileChannel = fileChannel;
+			this.splitIndex = splitIndex;
+		}
+
+		/**
+		 * Counts the lines in the split, without consuming them
+		 */
+		long countLines() throws IOException {
+			long lines = 0;
+			byte lastByte = NEW_LINE;
+			long position = this.position;
+			ByteBuffer byteBuffer = ByteBuffer.wrap(this.buffer);
+			while (position < this.end) {
+				byteBuffer.clear();
+				byteBuffer.limit((int)Math.min(this.buffer.length, this.end - position));
+				int count = this.fileChannel.read(byteBuffer, position);
+				if (count <= 0) {
+					break;
+				}
+				for (int i = 0; i < count; i++) {
+					if (this.buffer[i] == NEW_LINE) {
+						lines++;
+					}
+				}
+				lastByte = this.buffer[count - 1];
+				position += count;
+			}
+			if (lastByte != NEW_LINE) {
+				lines++; // the last line of the file may not end with a new line
+			}
+			return lines;
+		}
+
+		/**
+		 * Returns the next line of the split, or null if the whole split has been read
+		 */
+		String readLine() throws IOException {
+			int scanFrom = this.bufferStart;
+			while (true) {
+				for (int i = scanFrom; i < this.bufferEnd; i++) {
+					if (this.buffer[i] == NEW_LINE) {
+						return this.makeLine(i, i + 1);
+					}
+				}
+				int scanned = this.bufferEnd - this.bufferStart; // the bytes scanned already, that are moved to the start of the buffer when it is filled
+				if (this.position >= this.end || !this.fill()) {
+					return scanned > 0 ? this.makeLine(this.bufferEnd, this.bufferEnd) : null; // the last line of the file may not end with a new line
+				}
+				scanFrom = scanned;
+			}
+		}
+
+		/**
+		 * Reads more of the split into the buffer, moving unread bytes to the start of the buffer and growing it for lines longer than the buffer.
+		 * Returns false if there are no more bytes to read
+		 */
+		private boolean fill() throws IOException {
+			int unread = this.bufferEnd - this.bufferStart;
+			if (this.bufferStart > 0) {
+				System.arraycopy(this.buffer, this.bufferStart, this.buffer, 0, unread);
+			} else if (unread == this.buffer.length) {
+				this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+			}
+			this.bufferStart = 0;
+			this.bufferEnd = unread;
+			ByteBuffer byteBuffer = ByteBuffer.wrap(this.buffer, unread, (int)Math.min(this.buffer.length - unread, this.end - this.position));
+			int count = this.fileChannel.read(byteBuffer, this.position);
+			if (count <= 0) {
+				return false;
+			}
+			this.position += count;
+			this.bufferEnd += count;
+			return true;
+		}
+
+		/**
+		 * Makes a line of the bytes from the buffer start to the specified line end, dropping a carriage return before it, and moves the buffer start
+		 */
+		private String makeLine(int lineEnd, int nextLineStart) {
+			int length = lineEnd - this.bufferStart;
+			if (length > 0 && this.buffer[lineEnd - 1] == CARRIAGE_RETURN) {
+				length--;
+			}
+			String line = new String(this.buffer, this.bufferStart, length, SplitFileItemReader.this.charset);
+			this.bufferStart = nextLineStart;
+			this.lineNumber++;
+			return line;
+		}
+	}
+
+}
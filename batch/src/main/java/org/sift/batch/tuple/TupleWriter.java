@@ -45,7 +45,7 @@ public class TupleWriter implements ItemWriter<List<Tuple>> {
 		List<Tuple> containedTuples = new LinkedList<Tuple>();
 		for (List<Tuple> tList : tuples) {
 			for(Tuple t:tList) {
-				if (t.getString(Fields.KEY).equals(Tuple.UNDEFINED_KEY)) { // it is an collection of Tuple instances
+				if (Tuple.UNDEFINED_KEY.equals(t.getValue(Fields.KEY))) { // it is an collection of Tuple instances
 					Collections.addAll(containedTuples, t.getList(Fields.VALUES).toArray(new Tuple[0]));				
 				} else {
 					Collections.addAll(containedTuples,t);
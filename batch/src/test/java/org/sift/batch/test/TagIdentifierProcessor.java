@@ -20,6 +20,7 @@ import java.util.Map;
 
 import org.sift.runtime.Fields;
 import org.sift.runtime.Tuple;
+import org.sift.runtime.TupleKey;
 import org.sift.runtime.impl.WordSplitterProcessor;
 import org.sift.runtime.spi.OutputCollector;
 import org.sift.runtime.spi.Processor;
@@ -56,7 +57,7 @@ public class TagIdentifierProcessor  implements Processor {
 		for (int i = 0; i < values.length; i++) {
 			if (!((String)values[i]).startsWith(tag)) { // ignore Tuple values that start with the Tag
 				Tuple returnTuple = tuple.clone();
-				returnTuple.setValue(Fields.KEY, tag + Tuple.KEY_SEP_CHAR + (String)values[i]);
+				returnTuple.setValue(Fields.KEY, new TupleKey(tag, (String)values[i]));
 				returnTuple.setValue(Fields.VALUES,null);
 				
 				int wordsLength = WordSplitterProcessor.getWordsLength((String)values[i]);
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import org.sift.runtime.spi.BatchProcessor;
+import org.sift.runtime.spi.OutputCollector;
+import org.sift.runtime.spi.Processor;
+
+/**
+ * The <code>ProcessorPipeline</code> is a composite {@link Processor} that streams a {@link Tuple} through a chain of Processor instances. The
+ * {@link OutputCollector} passed to each Processor pushes every emitted Tuple directly into the next Processor, so Tuple instances flow depth-first through
+ * the chain and are never collected in intermediate lists. Tuple instances emitted by the last Processor are emitted to the OutputCollector passed to
+ * {@link #process(Tuple, OutputCollector)}. Chains containing a {@link BatchProcessor} cannot be streamed, see {@link #isStreamable()}.
+ * 
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class ProcessorPipeline implements Processor {
+
+	/** The list of Processor instances to stream the Tuple through */
+	private List<Processor> processors = new LinkedList<Processor>();
+
+	/**
+	 * Interface method implementation. Streams the specified Tuple through the configured Processor instances
+	 * @see org.sift.runtime.spi.Processor#process(org.sift.runtime.Tuple, org.sift.runtime.spi.OutputCollector)
+	 */
+	public void process(Tuple tuple, OutputCollector collector) {
+		Processor[] chain = this.processors.toArray(new Processor[this.processors.size()]);
+		if (chain.length == 0) {
+			collector.emit(tuple);
+			return;
+		}
+		OutputCollector downstream = collector;
+		for (int i = chain.length - 1; i > 0; i--) {
+			downstream = new StageCollector(chain[i], downstream);
+		}
+		chain[0].process(tuple, downstream);
+	}
+
+	/**
+	 * Determines if the configured Processor instances may be streamed i.e. none of them is a {@link BatchProcessor}
+	 * @return true if the Processor chain may be streamed, false otherwise
+	 */
+	public boolean isStreamable() {
+		for (Processor processor : this.processors) {
+			if (processor instanceof BatchProcessor) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The OutputCollector that pushes emitted Tuple instances into the next Processor in the chain
+	 */
+	private static class StageCollector implements OutputCollector {
+		/** The Processor to push emitted Tuple instances into*/
+		private Processor processor;
+		/** The OutputCollector for the Processor*/
+		private OutputCollector downstream;
+
+		/** Constructor for this class*/
+		private StageCollector(Processor processor, OutputCollector downstream) {
+			this.processor = processor;
+			this.downstream = downstream;
+		}
+
+		/**
+		 * Interface method implementation. Processes the specified Tuple using the next Processor
+		 * @see org.sift.runtime.spi.OutputCollector#emit(org.sift.runtime.Tuple)
+		 */
+		public void emit(Tuple tuple) {
+			this.processor.process(tuple, this.downstream);
+		}
+
+		/**
+		 * Interface method implementation. Throws {@link UnsupportedOperationException} as Tuple instances are not collected by this class
+		 * @see org.sift.runtime.spi.OutputCollector#getEmittedTuples()
+		 */
+		public List<Tuple> getEmittedTuples() {
+			throw new UnsupportedOperationException("Tuple instances are streamed and not collected. Use a BatchProcessor if all emitted Tuple instances are required");
+		}
+
+		/**
+		 * Interface method implementation. Processes each of the specified Tuple instances using the next Processor
+		 * @see org.sift.runtime.spi.OutputCollector#setTuples(org.sift.runtime.Tuple[])
+		 */
+		public void setTuples(Tuple... tuples) {
+			for (Tuple tuple : tuples) {
+				this.emit(tuple);
+			}
+		}
+	}
+
+	/** Getter/Setter methods*/
+	public List<Processor> getProcessors() {
+		return this.processors;
+	}
+	public void setProcessors(List<Processor> processors) {
+		this.processors = processors;
+	}
+
+}
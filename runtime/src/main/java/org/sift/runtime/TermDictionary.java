@@ -0,0 +1,154 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The <code>TermDictionary</code> maps terms, such as n-grams and tag cloud subjects, to int IDs and back. IDs are assigned in the order in which terms
+ * are first seen, starting at 0, and are never reassigned. Lookups of known terms and IDs do not lock; new terms are added under a lock.
+ * A subject ID and a term ID may be packed into a long key, see {@link #toKey(int, int)}, which sorts by subject ID first and then by term ID.
+ * Terms are never removed, so a dictionary is meant to be used for a bounded amount of data, for e.g. one shuffle, and then released.
+ * This class is thread safe.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class TermDictionary {
+
+	/** Initial capacity of the dictionary */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/** Mask for the term ID held in the low order bits of a key */
+	private static final long TERM_ID_MASK = 0xFFFFFFFFL;
+
+	/** Map of terms to their IDs */
+	private ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>(INITIAL_CAPACITY);
+
+	/** Terms indexed by their IDs. Replaced by a larger copy when full */
+	private volatile String[] terms = new String[INITIAL_CAPACITY];
+
+	/** The number of terms. Written after the term itself, so that reading it first makes the terms with smaller IDs visible */
+	private volatile int size;
+
+	/**
+	 * Returns the ID of the specified term, adding the term to this dictionary if required
+	 * @param term the term, must not be null
+	 * @return the ID of the term
+	 */
+	public int getId(String term) {
+		Integer id = this.ids.get(term);
+		if (id != null) {
+			return id;
+		}
+		synchronized(this) {
+			id = this.ids.get(term);
+			if (id != null) {
+				return id;
+			}
+			int newId = this.size;
+			if (newId == this.terms.length) {
+				String[] terms = new String[newId * 2];
+				System.arraycopy(this.terms, 0, terms, 0, newId);
+				this.terms = terms;
+			}
+			this.terms[newId] = term;
+			this.size = newId + 1;
+			this.ids.put(term, newId);
+			return newId;
+		}
+	}
+
+	/**
+	 * Returns the term having the specified ID
+	 * @param id the term ID, as returned by {@link #getId(String)}
+	 * @return the term
+	 * @throws IndexOutOfBoundsException if no term has the specified ID
+	 */
+	public String getTerm(int id) {
+		if (id < 0 || id >= this.size) {
+			throw new IndexOutOfBoundsException("Term ID : " + id + ", dictionary size : " + this.size);
+		}
+		return this.terms[id];
+	}
+
+	/**
+	 * Returns the packed key for the specified subject and term, adding either to this dictionary if required
+	 * @param subject the subject, for e.g. a tag cloud subject
+	 * @param term the term, for e.g. an n-gram
+	 * @return the key having the IDs of the subject and the term
+	 */
+	public long getKey(String subject, String term) {
+		return toKey(this.getId(subject), this.getId(term));
+	}
+
+	/**
+	 * Returns the IDs of the terms in this dictionary, in the natural ordering of the terms. The order does not depend on the order in which
+	 * the IDs were assigned.
+	 * @return the term IDs, indexed by the rank of their term
+	 */
+	public int[] getSortedIds() {
+		int size = this.size;
+		String[] terms = new String[size];
+		System.arraycopy(this.terms, 0, terms, 0, size);
+		Arrays.sort(terms);
+		int[] sortedIds = new int[size];
+		for (int rank = 0; rank < size; rank++) {
+			sortedIds[rank] = this.ids.get(terms[rank]);
+		}
+		return sortedIds;
+	}
+
+	/**
+	 * Returns the number of terms in this dictionary
+	 * @return the number of terms
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Packs the specified subject and term IDs into a long key. Keys sort by subject ID first and then by term ID, so that keys of the same subject are
+	 * adjacent when sorted.
+	 * @param subjectId the subject ID
+	 * @param termId the term ID
+	 * @return the packed key
+	 */
+	public static long toKey(int subjectId, int termId) {
+		return ((long)subjectId << 32) | (termId & TERM_ID_MASK);
+	}
+
+	/**
+	 * Returns the subject ID packed into the specified key
+	 * @param key the key created using {@link #toKey(int, int)}
+	 * @return the subject ID
+	 */
+	public static int getSubjectId(long key) {
+		return (int)(key >>> 32);
+	}
+
+	/**
+	 * Returns the term ID packed into the specified key
+	 * @param key the key created using {@link #toKey(int, int)}
+	 * @return the term ID
+	 */
+	public static int getTermId(long key) {
+		return (int)(key & TERM_ID_MASK);
+	}
+
+}
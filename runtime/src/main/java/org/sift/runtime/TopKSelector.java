@@ -0,0 +1,184 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The <code>TopKSelector</code> retains the first K of the items added to it, in the order defined by a Comparator, using a bounded heap. Adding an item
+ * takes O(log K) time and memory is bounded by K. Items that compare equal are ordered by the sequence in which they were added, so the selected items
+ * are the same as the first K items of a stable sort of all added items. This class is not thread safe.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class TopKSelector<T> {
+
+	/** The max number of items to retain */
+	private int k;
+
+	/** The Comparator that orders items, the first being the best */
+	private Comparator<? super T> comparator;
+
+	/** The heap of retained items, having the worst item at the root, and the sequence in which each was added */
+	private Object[] items;
+	private long[] sequences;
+
+	/** The number of retained items */
+	private int size;
+
+	/** The number of items added so far */
+	private long count;
+
+	/**
+	 * Constructor for this class
+	 * @param k the max number of items to retain, must be positive
+	 * @param comparator the Comparator that orders items, the first being the best
+	 */
+	public TopKSelector(int k, Comparator<? super T> comparator) {
+		if (k < 1) {
+			throw new IllegalArgumentException("The number of items to retain must be positive : " + k);
+		}
+		this.k = k;
+		this.comparator = comparator;
+		int capacity = Math.min(k, 16);
+		this.items = new Object[capacity];
+		this.sequences = new long[capacity];
+	}
+
+	/**
+	 * Adds the specified item, retaining it if it is among the first K of the items added so far
+	 * @param item the item to add
+	 * @return true if the item was retained, false if it was discarded. A retained item may later be displaced by better items
+	 */
+	public boolean add(T item) {
+		long sequence = this.count++;
+		if (this.size < this.k) {
+			if (this.size == this.items.length) {
+				int capacity = (int)Math.min((long)this.k, this.items.length * 2L);
+				Object[] items = new Object[capacity];
+				long[] sequences = new long[capacity];
+				System.arraycopy(this.items, 0, items, 0, this.size);
+				System.arraycopy(this.sequences, 0, sequences, 0, this.size);
+				this.items = items;
+				this.sequences = sequences;
+			}
+			this.siftUp(this.size++, item, sequence);
+			return true;
+		}
+		if (this.compare(item, sequence, this.items[0], this.sequences[0]) >= 0) {
+			return false;
+		}
+		this.siftDown(0, item, sequence);
+		return true;
+	}
+
+	/**
+	 * Returns the retained items, the best first
+	 * @return List of retained items
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> getSelected() {
+		Integer[] order = new Integer[this.size];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(Integer index1, Integer index2) {
+				return TopKSelector.this.compare(items[index1], sequences[index1], items[index2], sequences[index2]);
+			}
+		});
+		List<T> selected = new ArrayList<T>(order.length);
+		for (Integer index : order) {
+			selected.add((T)this.items[index]);
+		}
+		return selected;
+	}
+
+	/**
+	 * Returns the number of retained items
+	 * @return the number of retained items, at most K
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Discards all retained items
+	 */
+	public void clear() {
+		for (int i = 0; i < this.size; i++) {
+			this.items[i] = null;
+		}
+		this.size = 0;
+		this.count = 0;
+	}
+
+	/**
+	 * Helper method to compare two items, ordering equal items by sequence. Returns a negative number if the first item is better than the second
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(Object item1, long sequence1, Object item2, long sequence2) {
+		int result = this.comparator.compare((T)item1, (T)item2);
+		if (result != 0) {
+			return result;
+		}
+		return sequence1 < sequence2 ? -1 : (sequence1 == sequence2 ? 0 : 1);
+	}
+
+	/**
+	 * Helper method to move the specified item up from the specified index until its parent is worse than it
+	 */
+	private void siftUp(int index, Object item, long sequence) {
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (this.compare(item, sequence, this.items[parent], this.sequences[parent]) <= 0) {
+				break;
+			}
+			this.items[index] = this.items[parent];
+			this.sequences[index] = this.sequences[parent];
+			index = parent;
+		}
+		this.items[index] = item;
+		this.sequences[index] = sequence;
+	}
+
+	/**
+	 * Helper method to move the specified item down from the specified index until its children are better than it
+	 */
+	private void siftDown(int index, Object item, long sequence) {
+		int half = this.size >>> 1;
+		while (index < half) {
+			int child = 2 * index + 1;
+			int right = child + 1;
+			if (right < this.size && this.compare(this.items[right], this.sequences[right], this.items[child], this.sequences[child]) > 0) {
+				child = right;
+			}
+			if (this.compare(item, sequence, this.items[child], this.sequences[child]) >= 0) {
+				break;
+			}
+			this.items[index] = this.items[child];
+			this.sequences[index] = this.sequences[child];
+			index = child;
+		}
+		this.items[index] = item;
+		this.sequences[index] = sequence;
+	}
+
+}
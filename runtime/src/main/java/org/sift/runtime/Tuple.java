@@ -16,7 +16,6 @@
 package org.sift.runtime;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -49,24 +48,59 @@ public class Tuple {
 	public static final String VALUE_SEP_CHAR = ",";
 
 	
-	/** List of fields held by this tuple*/
+	/** Number of Fields constants, i.e. the number of value slots. Presence of fields is tracked in int bitmasks */
+	private static final int FIELD_COUNT = Fields.values().length;
+	
+	/** List of fields held by this tuple, in the order they were added*/
 	private List<Fields> fields;
 	
-	/** List of values held by this Tuple */
-	private List<Object> values = new ArrayList<Object>();
+	/** Values held by this Tuple, indexed by the ordinal of the field */
+	private Object[] values;
+	
+	/** Bitmask of the fields held by this Tuple */
+	private int presence;
+	
+	/** Primitive values held by this Tuple, indexed by the ordinal of the field. Created only when a primitive value is set */
+	private long[] primitives;
+	
+	/** Bitmask of the fields whose value is held as a primitive */
+	private int primitivePresence;
+	
+	/** Bitmask of the primitive fields whose value is a long, rather than an int */
+	private int longPresence;
+	
+	/** Bitmask of the fields whose List value is shared with the Tuple this one was cloned from, and must be copied before it is added to */
+	private int sharedLists;
 	
 	/**
 	 * Constructor. 
 	 * @param fields {@link Fields} The fields which the Tuple object will hold
 	 */
 	public Tuple(Fields... fields) { 
-		this.fields = new ArrayList<Fields>(Arrays.asList(fields));
-		this.values = new ArrayList<Object>(fields.length);
-		for(int i=0; i<fields.length; i++) {
-			this.values.add(null);
+		this.fields = new ArrayList<Fields>(fields.length);
+		this.values = new Object[FIELD_COUNT];
+		for (Fields field : fields) {
+			this.addField(field);
 		}
 	}	
 	
+	/**
+	 * Constructor for clones. Copies the fields list and value slots of the specified Tuple, and shares its List values until they are added to.
+	 * The specified Tuple is only read, so that it may be cloned from multiple threads.
+	 * @param tuple the Tuple being cloned
+	 */
+	private Tuple(Tuple tuple) {
+		this.fields = new ArrayList<Fields>(tuple.fields);
+		this.values = tuple.values.clone();
+		this.presence = tuple.presence;
+		if (tuple.primitives != null) {
+			this.primitives = tuple.primitives.clone();
+		}
+		this.primitivePresence = tuple.primitivePresence;
+		this.longPresence = tuple.longPresence;
+		this.sharedLists = tuple.presence;
+	}
+	
 	/**
 	 * Overriden super class method. Creates a string representation of this Tuple using its key and values
 	 * @see java.lang.Object#toString()
@@ -89,19 +123,43 @@ public class Tuple {
 	 * @param field {@link Fields} field to be added
 	 */
 	public void addField(Fields field) {
-		if(this.fields.contains(field))
+		if(this.contains(field))
 			return;
 		this.fields.add(field);
-		this.values.add(null);
+		this.presence |= 1 << field.ordinal();
 	}
 	
 	/** Setter Methods */
 	public void setValue(Fields field, Object value) {
-		this.values.set(this.getFieldIndex(field), value);
+		this.checkField(field);
+		this.values[field.ordinal()] = value;
+		this.primitivePresence &= ~(1 << field.ordinal());
+		this.sharedLists &= ~(1 << field.ordinal());
+	}
+	
+	/**
+	 * Sets the value of a field as a primitive int, avoiding boxing. {@link #getValue(Fields)} returns the value as an Integer.
+	 * @param field {@link Fields} whose value is to be set
+	 * @param value the int value
+	 */
+	public void setInt(Fields field, int value) {
+		this.setPrimitive(field, value);
+		this.longPresence &= ~(1 << field.ordinal());
+	}
+	
+	/**
+	 * Sets the value of a field as a primitive long, avoiding boxing. {@link #getValue(Fields)} returns the value as a Long.
+	 * @param field {@link Fields} whose value is to be set
+	 * @param value the long value
+	 */
+	public void setLong(Fields field, long value) {
+		this.setPrimitive(field, value);
+		this.longPresence |= 1 << field.ordinal();
 	}
 	
 	/**
-	 * Adds a value to list. If field is null, a new list is created. If field is not a list, CastException is thrown
+	 * Adds a value to list. If field is null, a new list is created. If field is not a list, CastException is thrown.
+	 * If the list is shared with the Tuple this one was cloned from, the list is copied before the value is added.
 	 * @param field Field to which value has to be added
 	 * @param value value to be added
 	 * 
@@ -110,8 +168,8 @@ public class Tuple {
 		if(value==null)
 			return;
 		List<Object> fieldList = this.getList(field);
-		if(fieldList==null) {
-			fieldList = new ArrayList<Object>();
+		if ((this.sharedLists & (1 << field.ordinal())) != 0) {
+			fieldList = new ArrayList<Object>(fieldList);
 			this.setValue(field, fieldList);
 		}
 		fieldList.add(value);
@@ -137,7 +195,11 @@ public class Tuple {
 		if(!this.contains(field)) {
 			return null;
 		}
-		return this.values.get(this.getFieldIndex(field));
+		if (this.isPrimitive(field)) {
+			long value = this.primitives[field.ordinal()];
+			return (this.longPresence & (1 << field.ordinal())) != 0 ? (Object)Long.valueOf(value) : (Object)Integer.valueOf((int)value);
+		}
+		return this.values[field.ordinal()];
 	}
 	
 	/**
@@ -146,9 +208,24 @@ public class Tuple {
 	 * @return int, A CastException is thrown if field is not an int
 	 */
 	public int getInt(Fields field){
+		if (this.isPrimitive(field)) {
+			return (int)this.primitives[field.ordinal()];
+		}
 		return (Integer) this.getValue(field);
 	}
 
+	/**
+	 * Gets the value of a long field
+	 * @param field {@link Fields} of which the value is required
+	 * @return long, A CastException is thrown if field is not a number
+	 */
+	public long getLong(Fields field){
+		if (this.isPrimitive(field)) {
+			return this.primitives[field.ordinal()];
+		}
+		return ((Number) this.getValue(field)).longValue();
+	}
+
 	/**
 	 * Gets the value of a String field
 	 * @param field {@link Fields} of which the value is required
@@ -165,11 +242,13 @@ public class Tuple {
 	 */
 	@SuppressWarnings("unchecked")
 	public List<Object> getList(Fields field) {
-		if(this.getValue(field)==null) {
+		Object value = this.getValue(field);
+		if(value==null) {
 			List<Object> newList = new ArrayList<Object>();
 			this.setValue(field, newList);
+			return newList;
 		}
-		return (List<Object>) this.getValue(field);
+		return (List<Object>) value;
 	}
 	/** End Getters */
 	
@@ -179,30 +258,47 @@ public class Tuple {
 	 * @return true, if field is found
 	 */
 	public boolean contains(Fields field) {
-		return this.getFieldIndex(field) != -1;
+		return (this.presence & (1 << field.ordinal())) != 0;
 	}
 	
 	/**
-	 * Returns a copy of the Tuple (Warning: The new tuple contains references to the old tuple in case of lists)
+	 * Returns a copy of the Tuple. The copy shares the List values of this Tuple, and copies a shared list when {@link #addToList(Fields, Object)} is
+	 * called on the copy i.e. the copy is made on write. This Tuple is not written by this method.
+	 * (Warning: The new tuple contains references to the old tuple in case of lists, so lists added to via this Tuple or obtained via 
+	 * {@link #getList(Fields)} remain shared)
 	 */
 	public Tuple clone() {
-		Tuple returnTuple = new Tuple(this.fields.toArray(new Fields[0]));
-		for (Fields field:this.getFields()) {
-			returnTuple.setValue(field, this.getValue(field));
+		return new Tuple(this);
+	}
+	
+	/**
+	 * Helper method to check if the value of the specified field is held as a primitive
+	 */
+	private boolean isPrimitive(Fields field) {
+		return (this.primitivePresence & (1 << field.ordinal())) != 0;
+	}
+	
+	/**
+	 * Helper method to set a primitive value for the specified field
+	 */
+	private void setPrimitive(Fields field, long value) {
+		this.checkField(field);
+		this.sharedLists &= ~(1 << field.ordinal());
+		if (this.primitives == null) {
+			this.primitives = new long[FIELD_COUNT];
 		}
-		return returnTuple;
+		this.primitives[field.ordinal()] = value;
+		this.primitivePresence |= 1 << field.ordinal();
+		this.values[field.ordinal()] = null;
 	}
 	
 	/**
-	 * Gets the index of the field. The index can be used to get the corresponding value
+	 * Helper method to check that the specified field is present in this Tuple
+	 * @throws IndexOutOfBoundsException if the field is not present
 	 */
-	private int getFieldIndex(Fields field) {
-		for (int i=0; i < this.fields.size(); i++) {
-			if (this.fields.get(i) == field) {
-				return i;
-			}
+	private void checkField(Fields field) {
+		if (!this.contains(field)) {
+			throw new IndexOutOfBoundsException("Field : " + field + " is not present in this Tuple");
 		}
-		return -1;
 	}
 }
-
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime;
+
+/**
+ * The <code>TupleKey</code> is a composite {@link Tuple} key made of a subject, for e.g. a tag cloud subject, and a tag. It may be set as the value of
+ * {@link Fields#KEY} instead of a String that joins the subject and the tag using {@link Tuple#KEY_SEP_CHAR}, and unlike such a String it is not
+ * ambiguous when either part contains the separator. TupleKey instances are immutable, have a precomputed hash code and sort by subject first and
+ * then by tag, so that keys of the same subject are adjacent when sorted.
+ * Tuple instances of a job are expected to have keys of the same type i.e. either all String or all TupleKey.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public final class TupleKey implements Comparable<TupleKey> {
+
+	/** The subject and the tag */
+	private final String subject;
+	private final String tag;
+
+	/** The precomputed hash code */
+	private final int hash;
+
+	/**
+	 * Constructor for this class
+	 * @param subject the subject, must not be null
+	 * @param tag the tag, must not be null
+	 */
+	public TupleKey(String subject, String tag) {
+		if (subject == null || tag == null) {
+			throw new IllegalArgumentException("Subject and tag cannot be null. Subject : " + subject + ", tag : " + tag);
+		}
+		this.subject = subject;
+		this.tag = tag;
+		this.hash = 31 * subject.hashCode() + tag.hashCode();
+	}
+
+	/**
+	 * Returns the specified Tuple key value as a TupleKey. A String key is split at the first {@link Tuple#KEY_SEP_CHAR}.
+	 * @param key the value of {@link Fields#KEY}, a TupleKey or a String
+	 * @return the TupleKey for the key value
+	 * @throws IllegalArgumentException if a String key does not contain the separator, as it would be taken to be the same as a key having an empty
+	 * 		subject
+	 */
+	public static TupleKey valueOf(Object key) {
+		if (key instanceof TupleKey) {
+			return (TupleKey)key;
+		}
+		String keyString = (String)key;
+		int index = keyString.indexOf(Tuple.KEY_SEP_CHAR);
+		if (index < 0) {
+			throw new IllegalArgumentException("Key does not have the separator " + Tuple.KEY_SEP_CHAR + " between subject and tag : " + keyString);
+		}
+		return new TupleKey(keyString.substring(0, index), keyString.substring(index + Tuple.KEY_SEP_CHAR.length()));
+	}
+
+	/**
+	 * Determines if the specified key has the same subject as this key
+	 * @param key the key to compare with
+	 * @return true if the subjects are equal, false otherwise
+	 */
+	public boolean hasSameSubject(TupleKey key) {
+		return this.subject.equals(key.subject);
+	}
+
+	/**
+	 * Interface method implementation. Compares subjects first and then tags, using their natural ordering of characters
+	 * @see java.lang.Comparable#compareTo(java.lang.Object)
+	 */
+	public int compareTo(TupleKey key) {
+		int result = this.subject.compareTo(key.subject);
+		return result != 0 ? result : this.tag.compareTo(key.tag);
+	}
+
+	/**
+	 * Overriden superclass method. Keys are equal if their subjects and tags are equal
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	public boolean equals(Object object) {
+		if (this == object) {
+			return true;
+		}
+		if (!(object instanceof TupleKey)) {
+			return false;
+		}
+		TupleKey key = (TupleKey)object;
+		return this.hash == key.hash && this.subject.equals(key.subject) && this.tag.equals(key.tag);
+	}
+
+	/**
+	 * Overriden superclass method. Returns the precomputed hash code
+	 * @see java.lang.Object#hashCode()
+	 */
+	public int hashCode() {
+		return this.hash;
+	}
+
+	/**
+	 * Overriden superclass method. Returns the subject and tag joined using {@link Tuple#KEY_SEP_CHAR}
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return this.subject + Tuple.KEY_SEP_CHAR + this.tag;
+	}
+
+	/** Getter methods */
+	public String getSubject() {
+		return this.subject;
+	}
+	public String getTag() {
+		return this.tag;
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.sift.runtime.Tuple;
+
+/**
+ * The <code>ConcurrentAggregatingOutputCollector</code> is a {@link HashAggregatingOutputCollector} that may be written to by many threads concurrently.
+ * Aggregates are held in a lock-striped concurrent map and each aggregate is updated under its own lock, so writer threads contend only when they fold
+ * Tuple instances having the same key. Aggregates are sorted and set on the delegate when the emitted tuples are read, typically at the end of a step,
+ * and reads exclude writes for that duration.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class ConcurrentAggregatingOutputCollector extends HashAggregatingOutputCollector {
+
+	/** Default number of lock stripes, i.e. the estimated number of concurrently writing threads */
+	private static final int CONCURRENCY_LEVEL = 64;
+
+	/** Read lock is shared by writers of Tuple instances, write lock is held while aggregates are read */
+	private ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** The number of lock stripes */
+	private int concurrencyLevel = CONCURRENCY_LEVEL;
+
+	/**
+	 * Overriden superclass method. Folds the specified Tuple without serializing access across writer threads
+	 * @see org.sift.runtime.impl.HashAggregatingOutputCollector#emit(org.sift.runtime.Tuple)
+	 */
+	public void emit(Tuple tuple) {
+		this.lock.readLock().lock();
+		try {
+			this.fold(tuple);
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Overriden superclass method. Folds the specified Tuple instances without serializing access across writer threads
+	 * @see org.sift.runtime.impl.HashAggregatingOutputCollector#setTuples(org.sift.runtime.Tuple[])
+	 */
+	public void setTuples(Tuple... tuples) {
+		this.lock.readLock().lock();
+		try {
+			for (Tuple tuple : tuples) {
+				this.fold(tuple);
+			}
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Overriden superclass method. Sorts the aggregates and sets them on the delegate while excluding writer threads
+	 * @see org.sift.runtime.impl.HashAggregatingOutputCollector#getEmittedTuples()
+	 */
+	public List<Tuple> getEmittedTuples() {
+		this.lock.writeLock().lock();
+		try {
+			return this.materialize();
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Overriden superclass method. Creates a lock-striped concurrent map
+	 * @see org.sift.runtime.impl.HashAggregatingOutputCollector#createAggregates()
+	 */
+	protected Map<Object, TupleAggregate> createAggregates() {
+		return new ConcurrentHashMap<Object, TupleAggregate>(16, 0.75f, this.concurrencyLevel > 0 ? this.concurrencyLevel : CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * Overriden superclass method. Atomically creates the aggregate for the Tuple key if required and updates it under the aggregate's lock
+	 * @see org.sift.runtime.impl.HashAggregatingOutputCollector#fold(org.sift.runtime.Tuple)
+	 */
+	protected void fold(Tuple tuple) {
+		Object key = this.getAggregateKey(tuple);
+		ConcurrentMap<Object, TupleAggregate> concurrentAggregates = (ConcurrentMap<Object, TupleAggregate>)this.aggregates;
+		TupleAggregate aggregate = concurrentAggregates.get(key);
+		if (aggregate == null) {
+			TupleAggregate newAggregate = new TupleAggregate(tuple);
+			aggregate = concurrentAggregates.putIfAbsent(key, newAggregate);
+			if (aggregate == null) {
+				aggregate = newAggregate;
+			}
+		}
+		synchronized(aggregate) {
+			aggregate.add(tuple);
+		}
+	}
+
+	/** Getter/Setter methods */
+	public int getConcurrencyLevel() {
+		return this.concurrencyLevel;
+	}
+	/**
+	 * Sets the number of lock stripes. Must be set before any Tuple instances are written to this collector.
+	 * @param concurrencyLevel the number of lock stripes
+	 */
+	public void setConcurrencyLevel(int concurrencyLevel) {
+		this.concurrencyLevel = concurrencyLevel;
+		this.aggregates = this.createAggregates();
+	}
+
+}
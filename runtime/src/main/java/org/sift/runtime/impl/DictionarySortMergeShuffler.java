@@ -0,0 +1,119 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime.impl;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import org.sift.runtime.Fields;
+import org.sift.runtime.TermDictionary;
+import org.sift.runtime.Tuple;
+import org.sift.runtime.TupleKey;
+import org.sift.runtime.spi.Shuffler;
+
+/**
+ * The <code>DictionarySortMergeShuffler</code> is a memory based {@link Shuffler} implementation that encodes the subject and the phrase of each Tuple key
+ * into int IDs using a {@link TermDictionary}, and sorts and merges Tuple instances on the packed long keys instead of comparing key Strings.
+ * Tuple instances having the same key are merged in the same way as {@link MemSortMergeShuffler}, and Tuple instances of a subject are adjacent in the
+ * output. Unlike {@link MemSortMergeShuffler}, the output is ordered by the IDs of subjects and phrases i.e. in the order in which they were first seen by
+ * the dictionary, and not in the natural ordering of the keys. A new dictionary is used for each call to {@link #sort(List)}, and is released once the
+ * Tuple instances are merged.
+ * Keys may be {@link TupleKey} instances or Strings. The subject of a String key is the part before the first {@link Tuple#KEY_SEP_CHAR}, see
+ * {@link TupleKey#valueOf(Object)}.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class DictionarySortMergeShuffler extends MemSortMergeShuffler {
+
+	/**
+	 * Overriden superclass method. Encodes the keys of the specified Tuple instances, sorts the Tuple instances by the encoded keys and merges them
+	 * @see org.sift.runtime.impl.MemSortMergeShuffler#sort(java.util.List)
+	 */
+	public List<Tuple> sort(List<Tuple> tuples) {
+		Tuple[] sortedTuples = tuples.toArray(new Tuple[tuples.size()]);
+		TermDictionary termDictionary = new TermDictionary();
+		long[] keys = new long[sortedTuples.length];
+		for (int i = 0; i < sortedTuples.length; i++) {
+			keys[i] = this.encodeKey(sortedTuples[i].getValue(Fields.KEY), termDictionary);
+		}
+		int[] order = new int[sortedTuples.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		order = this.sort(order, keys);
+		List<Tuple> sortMergeTuples = new LinkedList<Tuple>();
+		Tuple mergedTuple = null;
+		long mergedKey = 0;
+		for (int index : order) {
+			if (mergedTuple == null || keys[index] != mergedKey) {
+				if (mergedTuple != null) {
+					sortMergeTuples.add(mergedTuple);
+				}
+				mergedTuple = this.createMergedTuple(sortedTuples[index]);
+				mergedKey = keys[index];
+			} else {
+				this.mergeTuple(mergedTuple, sortedTuples[index]);
+			}
+		}
+		if (mergedTuple != null) { // add the last merged tuple
+			sortMergeTuples.add(mergedTuple);
+		}
+		return sortMergeTuples;
+	}
+
+	/**
+	 * Encodes the specified Tuple key into a key packed with the IDs of its subject and phrase
+	 * @param key the Tuple key, a TupleKey or a String
+	 * @param termDictionary the dictionary of the subjects and phrases seen in the current sort
+	 * @return the encoded key
+	 */
+	protected long encodeKey(Object key, TermDictionary termDictionary) {
+		TupleKey tupleKey = TupleKey.valueOf(key);
+		return termDictionary.getKey(tupleKey.getSubject(), tupleKey.getTag());
+	}
+
+	/**
+	 * Helper method to stable sort the specified indices by their keys, using a bottom up merge sort
+	 * @param order the indices to sort
+	 * @param keys the keys of the indices
+	 * @return array of the sorted indices, which may be the specified array
+	 */
+	private int[] sort(int[] order, long[] keys) {
+		int[] merged = new int[order.length];
+		for (int width = 1; width < order.length; width *= 2) {
+			for (int low = 0; low < order.length; low += 2 * width) {
+				int middle = Math.min(low + width, order.length);
+				int high = Math.min(low + 2 * width, order.length);
+				int left = low, right = middle, index = low;
+				while (left < middle && right < high) {
+					merged[index++] = keys[order[right]] < keys[order[left]] ? order[right++] : order[left++];
+				}
+				while (left < middle) {
+					merged[index++] = order[left++];
+				}
+				while (right < high) {
+					merged[index++] = order[right++];
+				}
+			}
+			int[] swap = order;
+			order = merged;
+			merged = swap;
+		}
+		return order;
+	}
+
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.PriorityQueue;
+
+import org.sift.runtime.Fields;
+import org.sift.runtime.Tuple;
+import org.sift.runtime.spi.Shuffler;
+
+/**
+ * The <code>ExternalSortMergeShuffler</code> is a disk based {@link Shuffler} implementation for Tuple data that does not fit in memory. It sorts bounded
+ * runs of Tuple instances in memory and spills them to temporary run files, which are then k-way merged using a heap. Identical Tuple values are merged
+ * into a Tuple, identified by the common key value, in the same way as {@link MemSortMergeShuffler}.
+ * NOTE : the list passed to {@link #sort(List)} is cleared as its Tuple instances are spilled to run files.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class ExternalSortMergeShuffler extends MemSortMergeShuffler {
+
+	/** Default values for the max number of Tuple instances sorted in memory and the max number of run files merged at a time */
+	private static final int MAX_TUPLES_IN_MEMORY = 500000;
+	private static final int MERGE_FAN_IN = 16;
+
+	/** The run file name prefix and suffix*/
+	private static final String RUN_FILE_PREFIX = "sift-run";
+	private static final String RUN_FILE_SUFFIX = ".tmp";
+
+	/** Size of buffers used for reading and writing run files*/
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/** The max number of Tuple instances sorted in memory, before spilling to a run file */
+	private int maxTuplesInMemory = MAX_TUPLES_IN_MEMORY;
+
+	/** The max number of run files merged at a time */
+	private int mergeFanIn = MERGE_FAN_IN;
+
+	/** The directory where run files are created, defaults to the system temporary directory when null */
+	private String spillDirectory;
+
+	/**
+	 * Overriden superclass method. Sorts the specified Tuple list in memory if it fits within {@link #getMaxTuplesInMemory()}. Spills sorted runs to
+	 * temporary files and merges them otherwise.
+	 * @see org.sift.runtime.impl.MemSortMergeShuffler#sort(java.util.List)
+	 */
+	public List<Tuple> sort(List<Tuple> tuples) {
+		if (tuples.size() <= this.getMaxTuplesInMemory()) {
+			return super.sort(tuples);
+		}
+		List<File> runFiles = new LinkedList<File>();
+		List<File> mergedRunFiles = new LinkedList<File>();
+		try {
+			List<Tuple> run = new ArrayList<Tuple>(this.getMaxTuplesInMemory());
+			ListIterator<Tuple> iterator = tuples.listIterator();
+			while (iterator.hasNext()) {
+				run.add(iterator.next());
+				iterator.set(null); // release the reference as soon as it is in a run
+				if (run.size() == this.getMaxTuplesInMemory()) {
+					runFiles.add(this.spill(run));
+					run.clear();
+				}
+			}
+			if (!run.isEmpty()) {
+				runFiles.add(this.spill(run));
+				run.clear();
+			}
+			tuples.clear();
+			// merge consecutive run files until they can be merged in one pass
+			while (runFiles.size() > this.getMergeFanIn()) {
+				while (!runFiles.isEmpty()) {
+					List<File> group = new ArrayList<File>(this.getMergeFanIn());
+					while (!runFiles.isEmpty() && group.size() < this.getMergeFanIn()) {
+						group.add(runFiles.remove(0));
+					}
+					mergedRunFiles.add(this.mergeRuns(group));
+				}
+				runFiles = mergedRunFiles;
+				mergedRunFiles = new LinkedList<File>();
+			}
+			return this.sortMergeRuns(runFiles);
+		} catch (IOException e) {
+			throw new RuntimeException("Error sorting tuple data using run files in : " + this.getSpillDirectoryFile(), e);
+		} finally {
+			// run files of a failed merge pass are in either list
+			for (File runFile : runFiles) {
+				runFile.delete();
+			}
+			for (File runFile : mergedRunFiles) {
+				runFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Helper method to sort the specified run of Tuple instances and write it to a new run file. The run file is deleted if it cannot be written.
+	 * @param run the Tuple instances to sort and write
+	 * @return the run file
+	 * @throws IOException in case of errors writing the run file
+	 */
+	private File spill(List<Tuple> run) throws IOException {
+		Collections.sort(run, this);
+		File runFile = this.createRunFile();
+		DataOutputStream out = null;
+		boolean spilled = false;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(runFile), BUFFER_SIZE));
+			for (Tuple tuple : run) {
+				out.writeBoolean(true);
+				TupleCodec.write(tuple, out);
+			}
+			out.writeBoolean(false);
+			out.close();
+			spilled = true;
+		} finally {
+			if (!spilled) {
+				this.close(out);
+				runFile.delete();
+			}
+		}
+		return runFile;
+	}
+
+	/**
+	 * Helper method to merge the specified run files into a single new run file. The specified run files are deleted after the merge, and also when
+	 * the merge fails, along with the merged run file.
+	 * @param runFiles the consecutive run files to merge
+	 * @return the merged run file
+	 * @throws IOException in case of errors reading or writing run files
+	 */
+	private File mergeRuns(List<File> runFiles) throws IOException {
+		PriorityQueue<RunReader> heap = null;
+		File mergedRunFile = null;
+		DataOutputStream out = null;
+		boolean merged = false;
+		try {
+			heap = this.openRuns(runFiles);
+			mergedRunFile = this.createRunFile();
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(mergedRunFile), BUFFER_SIZE));
+			while (!heap.isEmpty()) {
+				RunReader reader = heap.poll();
+				out.writeBoolean(true);
+				TupleCodec.write(reader.current, out);
+				if (reader.advance()) {
+					heap.add(reader);
+				}
+			}
+			out.writeBoolean(false);
+			out.close();
+			merged = true;
+		} finally {
+			if (!merged) {
+				this.close(out);
+				if (mergedRunFile != null) {
+					mergedRunFile.delete();
+				}
+			}
+			if (heap != null) {
+				this.closeRuns(heap);
+			}
+			for (File runFile : runFiles) {
+				runFile.delete();
+			}
+		}
+		return mergedRunFile;
+	}
+
+	/**
+	 * Helper method to k-way merge the specified run files while merging Tuple instances having identical keys
+	 * @param runFiles the consecutive run files to merge
+	 * @return List containing sorted and merged Tuple data
+	 * @throws IOException in case of errors reading run files
+	 */
+	private List<Tuple> sortMergeRuns(List<File> runFiles) throws IOException {
+		List<Tuple> sortMergeTuples = new LinkedList<Tuple>();
+		PriorityQueue<RunReader> heap = this.openRuns(runFiles);
+		try {
+			Tuple mergedTuple = null;
+			while (!heap.isEmpty()) {
+				RunReader reader = heap.poll();
+				Tuple tuple = reader.current;
+				if (mergedTuple == null) {
+					mergedTuple = this.createMergedTuple(tuple);
+				} else if (!mergedTuple.getValue(Fields.KEY).equals(tuple.getValue(Fields.KEY))) {
+					sortMergeTuples.add(mergedTuple);
+					mergedTuple = this.createMergedTuple(tuple);
+				} else {
+					this.mergeTuple(mergedTuple, tuple);
+				}
+				if (reader.advance()) {
+					heap.add(reader);
+				}
+			}
+			if (mergedTuple != null) {
+				sortMergeTuples.add(mergedTuple);
+			}
+		} finally {
+			this.closeRuns(heap);
+		}
+		return sortMergeTuples;
+	}
+
+	/**
+	 * Helper method to open the specified run files and return a heap of readers ordered by their current Tuple. Readers of Tuple instances having
+	 * identical keys are ordered by the position of their run files so that the merge is stable.
+	 */
+	private PriorityQueue<RunReader> openRuns(List<File> runFiles) throws IOException {
+		PriorityQueue<RunReader> heap = new PriorityQueue<RunReader>(Math.max(1, runFiles.size()), new Comparator<RunReader>() {
+			public int compare(RunReader reader1, RunReader reader2) {
+				int result = ExternalSortMergeShuffler.this.compare(reader1.current, reader2.current);
+				return result != 0 ? result : reader1.index - reader2.index;
+			}
+		});
+		int index = 0;
+		try {
+			for (File runFile : runFiles) {
+				RunReader reader = new RunReader(runFile, index++);
+				if (reader.advance()) {
+					heap.add(reader);
+				}
+			}
+		} catch (IOException e) {
+			this.closeRuns(heap);
+			throw e;
+		}
+		return heap;
+	}
+
+	/**
+	 * Helper method to close readers that are still open
+	 */
+	private void closeRuns(PriorityQueue<RunReader> heap) {
+		for (RunReader reader : heap) {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Helper method to create a new run file in the spill directory
+	 */
+	private File createRunFile() throws IOException {
+		return File.createTempFile(RUN_FILE_PREFIX, RUN_FILE_SUFFIX, this.getSpillDirectoryFile());
+	}
+
+	/**
+	 * Helper method to close the specified stream, if not null, ignoring errors
+	 */
+	private void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	/**
+	 * Helper method to return the spill directory, or null to use the system temporary directory
+	 */
+	private File getSpillDirectoryFile() {
+		return this.spillDirectory == null ? null : new File(this.spillDirectory);
+	}
+
+	/**
+	 * Sequential reader of Tuple instances in a run file
+	 */
+	private static class RunReader {
+		/** The run file input stream*/
+		private DataInputStream in;
+		/** The position of the run file in the merge*/
+		private int index;
+		/** The current Tuple*/
+		private Tuple current;
+
+		/** Constructor for this class*/
+		private RunReader(File runFile, int index) throws IOException {
+			this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(runFile), BUFFER_SIZE));
+			this.index = index;
+		}
+
+		/**
+		 * Reads the next Tuple from the run file. Closes the run file when all Tuple instances have been read.
+		 * @return true if a Tuple was read, false if the run file has been read fully
+		 */
+		private boolean advance() throws IOException {
+			if (this.in.readBoolean()) {
+				this.current = TupleCodec.read(this.in);
+				return true;
+			}
+			this.current = null;
+			this.close();
+			return false;
+		}
+
+		/** Closes the run file*/
+		private void close() {
+			try {
+				this.in.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	/** Getter/Setter methods */
+	public int getMaxTuplesInMemory() {
+		return this.maxTuplesInMemory;
+	}
+	public void setMaxTuplesInMemory(int maxTuplesInMemory) {
+		this.maxTuplesInMemory = maxTuplesInMemory;
+	}
+	public int getMergeFanIn() {
+		return this.mergeFanIn;
+	}
+	public void setMergeFanIn(int mergeFanIn) {
+		this.mergeFanIn = Math.max(2, mergeFanIn);
+	}
+	public String getSpillDirectory() {
+		return this.spillDirectory;
+	}
+	public void setSpillDirectory(String spillDirectory) {
+		this.spillDirectory = spillDirectory;
+	}
+
+}
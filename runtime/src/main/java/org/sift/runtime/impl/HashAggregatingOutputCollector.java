@@ -0,0 +1,308 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sift.runtime.Fields;
+import org.sift.runtime.TermDictionary;
+import org.sift.runtime.TopKSelector;
+import org.sift.runtime.Tuple;
+import org.sift.runtime.TupleKey;
+import org.sift.runtime.spi.OutputCollector;
+
+/**
+ * The <code>HashAggregatingOutputCollector</code> is a Composite {@link OutputCollector} implementation that folds each incoming {@link Tuple} into a
+ * hashed aggregate (summed weight and distinct sources) identified by the Tuple key. Unlike {@link ValueAggregatingOutputCollector}, the collected Tuple
+ * instances are not re-sorted on every call to {@link #setTuples(Tuple...)}. The aggregates are sorted by key only once, when the emitted tuples are first
+ * read, and are then set on the configured delegate OutputCollector. By default, the merged output is identical to the one produced by
+ * {@link MemSortMergeShuffler} followed by value aggregation in {@link ValueAggregatingOutputCollector}.
+ * <p>
+ * Optionally, only the heaviest {@link #getMaxTagsPerSubject()} aggregates of each tag cloud subject, and of each sentiment within a subject, are turned into
+ * Tuple instances while the sorted aggregates are set on the delegate. All other aggregates are released. This pushes down the selection of top tags, as done
+ * by a tag cloud processor, so that tags which would be discarded there are never materialized. Aggregates of equal weight are selected in key order, and
+ * the selected aggregates of a subject are set in descending order of weight. Aggregates whose tag is shorter than {@link #getMinTagLength()} are not
+ * selected. Selection is exact only if all Tuple instances are written before the emitted tuples are first read, as discarded aggregates are not
+ * folded again.
+ * <p>
+ * Optionally, see {@link #setEncodeKeys(boolean)}, aggregates are identified by long keys packed with the {@link TermDictionary} IDs of the subject and
+ * the tag of each Tuple key, so that aggregates are hashed and grouped by subject without comparing Strings. The terms in the dictionary are sorted
+ * once when the aggregates are set on the delegate, and the keys are sorted on the ranks of their subject and tag, so that subjects, sentiments and
+ * aggregates of equal weight are in the natural ordering of their text, and not in the order in which the IDs were assigned. This order does not
+ * depend on the order in which Tuple instances are written, for e.g. by concurrent threads. Text is otherwise looked up from the dictionary only for
+ * the tags checked against {@link #getMinTagLength()}. The dictionary is released each time the aggregates are set on the delegate.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class HashAggregatingOutputCollector implements OutputCollector {
+
+	/** Comparator that orders aggregates by descending weight */
+	private static final Comparator<TupleAggregate> WEIGHT_COMPARATOR = new Comparator<TupleAggregate>() {
+		public int compare(TupleAggregate aggregate1, TupleAggregate aggregate2) {
+			return aggregate2.getWeight() < aggregate1.getWeight() ? -1 : (aggregate2.getWeight() == aggregate1.getWeight() ? 0 : 1);
+		}
+	};
+
+	/** The OutputCollector delegate */
+	protected OutputCollector delegate;
+
+	/** The aggregates, identified by Tuple key, that are yet to be set on the delegate */
+	protected Map<Object, TupleAggregate> aggregates = this.createAggregates();
+
+	/** The max number of aggregates to retain per subject and sentiment. All aggregates are retained by default */
+	private int maxTagsPerSubject = Integer.MAX_VALUE;
+
+	/** The min length of tags that are retained when the number of aggregates per subject is limited */
+	private int minTagLength;
+
+	/** Flag to identify aggregates by keys packed with dictionary IDs of the subject and the tag, instead of by the Tuple keys */
+	private boolean encodeKeys;
+
+	/** The dictionary of subjects and tags of the aggregates that are yet to be set on the delegate, when keys are encoded */
+	private TermDictionary termDictionary = new TermDictionary();
+
+	/**
+	 * Interface method implementation. Folds the specified Tuple into the aggregate identified by its key
+	 * @see org.sift.runtime.spi.OutputCollector#emit(org.sift.runtime.Tuple)
+	 */
+	public synchronized void emit(Tuple tuple) {
+		this.fold(tuple);
+	}
+
+	/**
+	 * Interface method implementation. Sorts the aggregates collected so far by their keys and sets them on the delegate before returning the List of
+	 * {@link Tuple} instances returned by the namesake method of the delegate
+	 * @see org.sift.runtime.spi.OutputCollector#getEmittedTuples()
+	 */
+	public synchronized List<Tuple> getEmittedTuples() {
+		return this.materialize();
+	}
+
+	/**
+	 * Interface method implementation. Folds the specified {@link Tuple} instances into the aggregates identified by their keys.
+	 * NOTE : this method is synchronized on this instance in order to protect from concurrent calls to this method.
+	 * @see org.sift.runtime.spi.OutputCollector#setTuples(org.sift.runtime.Tuple[])
+	 */
+	public synchronized void setTuples(Tuple... tuples) {
+		for (Tuple tuple : tuples) {
+			this.fold(tuple);
+		}
+	}
+
+	/**
+	 * Creates the Map that holds aggregates identified by Tuple key
+	 * @return an empty Map
+	 */
+	protected Map<Object, TupleAggregate> createAggregates() {
+		return new HashMap<Object, TupleAggregate>();
+	}
+
+	/**
+	 * Folds the specified Tuple into the aggregate identified by its key
+	 * @param tuple the Tuple to fold
+	 */
+	protected void fold(Tuple tuple) {
+		Object key = this.getAggregateKey(tuple);
+		TupleAggregate aggregate = this.aggregates.get(key);
+		if (aggregate == null) {
+			aggregate = new TupleAggregate(tuple);
+			this.aggregates.put(key, aggregate);
+		}
+		aggregate.add(tuple);
+	}
+
+	/**
+	 * Sorts the aggregates collected so far by their keys, sets them on the delegate and returns the delegate's emitted tuples. Callers must ensure that
+	 * no Tuple instances are folded concurrently.
+	 * @return the List of Tuple instances returned by the namesake method of the delegate
+	 */
+	protected List<Tuple> materialize() {
+		if (!this.aggregates.isEmpty()) {
+			if (!this.delegate.getEmittedTuples().isEmpty()) {
+				// fold back, ahead of the newer aggregates, anything that was set on the delegate earlier so that it always holds one Tuple per key
+				Map<Object, TupleAggregate> newerAggregates = this.aggregates;
+				this.aggregates = this.createAggregates();
+				for (Tuple tuple : this.delegate.getEmittedTuples()) {
+					this.fold(tuple);
+				}
+				for (Map.Entry<Object, TupleAggregate> entry : newerAggregates.entrySet()) {
+					TupleAggregate aggregate = this.aggregates.get(entry.getKey());
+					if (aggregate == null) {
+						this.aggregates.put(entry.getKey(), entry.getValue());
+					} else {
+						aggregate.add(entry.getValue());
+					}
+				}
+			}
+			Object[] keys = this.sortKeys();
+			Tuple[] aggregatedTuples;
+			if (this.getMaxTagsPerSubject() < Integer.MAX_VALUE) {
+				aggregatedTuples = this.selectTopTags(keys);
+			} else {
+				aggregatedTuples = new Tuple[keys.length];
+				int count = 0;
+				for (Object key : keys) {
+					aggregatedTuples[count] = this.aggregates.get(key).toTuple();
+					count++;
+				}
+			}
+			this.aggregates.clear();
+			if (this.isEncodeKeys()) {
+				this.termDictionary = new TermDictionary();
+			}
+			this.delegate.setTuples(aggregatedTuples);
+		}
+		return this.delegate.getEmittedTuples();
+	}
+
+	/**
+	 * Sorts the keys of the aggregates collected so far. Encoded keys are sorted on the ranks of their subject and tag IDs in the natural ordering
+	 * of the subject and tag text, so that their order does not depend on the order in which the IDs were assigned.
+	 * @return the sorted keys of all aggregates
+	 */
+	protected Object[] sortKeys() {
+		Object[] keys = this.aggregates.keySet().toArray();
+		if (!this.isEncodeKeys()) {
+			Arrays.sort(keys);
+			return keys;
+		}
+		int[] sortedIds = this.termDictionary.getSortedIds();
+		int[] ranks = new int[sortedIds.length];
+		for (int rank = 0; rank < sortedIds.length; rank++) {
+			ranks[sortedIds[rank]] = rank;
+		}
+		long[] rankedKeys = new long[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			long key = (Long)keys[i];
+			rankedKeys[i] = TermDictionary.toKey(ranks[TermDictionary.getSubjectId(key)], ranks[TermDictionary.getTermId(key)]);
+		}
+		Arrays.sort(rankedKeys);
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = TermDictionary.toKey(sortedIds[TermDictionary.getSubjectId(rankedKeys[i])], sortedIds[TermDictionary.getTermId(rankedKeys[i])]);
+		}
+		return keys;
+	}
+
+	/**
+	 * Selects the heaviest aggregates of each subject and sentiment, walking the specified sorted keys one subject at a time, and creates Tuple instances
+	 * only for the selected aggregates. Aggregates of a subject are released once its keys have been walked.
+	 * @param keys the sorted keys of all aggregates
+	 * @return the Tuple instances for the selected aggregates
+	 */
+	protected Tuple[] selectTopTags(Object[] keys) {
+		if (this.getMaxTagsPerSubject() <= 0) {
+			return new Tuple[0];
+		}
+		List<Tuple> selectedTuples = new ArrayList<Tuple>();
+		Map<Object, TopKSelector<TupleAggregate>> selectors = new LinkedHashMap<Object, TopKSelector<TupleAggregate>>();
+		Object subject = null;
+		for (Object key : keys) {
+			Object keySubject;
+			String tag = null;
+			if (this.isEncodeKeys()) {
+				keySubject = TermDictionary.getSubjectId((Long)key);
+				if (this.getMinTagLength() > 0) {
+					tag = this.termDictionary.getTerm(TermDictionary.getTermId((Long)key));
+				}
+			} else {
+				TupleKey tupleKey = TupleKey.valueOf(key);
+				keySubject = tupleKey.getSubject();
+				tag = tupleKey.getTag();
+			}
+			if (subject != null && !subject.equals(keySubject)) {
+				this.addSelected(selectors, selectedTuples);
+			}
+			subject = keySubject;
+			TupleAggregate aggregate = this.aggregates.remove(key);
+			if (tag != null && tag.length() < this.getMinTagLength()) {
+				continue;
+			}
+			Object sentiment = aggregate.getFirst().contains(Fields.SENTIMENT) ? aggregate.getFirst().getValue(Fields.SENTIMENT) : null;
+			TopKSelector<TupleAggregate> selector = selectors.get(sentiment);
+			if (selector == null) {
+				selector = new TopKSelector<TupleAggregate>(this.getMaxTagsPerSubject(), WEIGHT_COMPARATOR);
+				selectors.put(sentiment, selector);
+			}
+			selector.add(aggregate);
+		}
+		this.addSelected(selectors, selectedTuples);
+		return selectedTuples.toArray(new Tuple[selectedTuples.size()]);
+	}
+
+	/**
+	 * Returns the key that identifies the aggregate for the specified Tuple
+	 * @param tuple the Tuple to fold
+	 * @return the Tuple key, or the key packed with the dictionary IDs of its subject and tag if keys are encoded
+	 */
+	protected Object getAggregateKey(Tuple tuple) {
+		Object key = tuple.getValue(Fields.KEY);
+		if (this.isEncodeKeys()) {
+			TupleKey tupleKey = TupleKey.valueOf(key);
+			return this.termDictionary.getKey(tupleKey.getSubject(), tupleKey.getTag());
+		}
+		return key;
+	}
+
+	/**
+	 * Helper method to create Tuple instances for the aggregates selected by the specified selectors, and to clear the selectors
+	 */
+	private void addSelected(Map<Object, TopKSelector<TupleAggregate>> selectors, List<Tuple> selectedTuples) {
+		for (TopKSelector<TupleAggregate> selector : selectors.values()) {
+			for (TupleAggregate aggregate : selector.getSelected()) {
+				selectedTuples.add(aggregate.toTuple());
+			}
+		}
+		selectors.clear();
+	}
+
+	/** Getter/Setter methods */
+	public OutputCollector getDelegate() {
+		return this.delegate;
+	}
+	public void setDelegate(OutputCollector delegate) {
+		this.delegate = delegate;
+	}
+	public int getMaxTagsPerSubject() {
+		return this.maxTagsPerSubject;
+	}
+	public void setMaxTagsPerSubject(int maxTagsPerSubject) {
+		this.maxTagsPerSubject = maxTagsPerSubject;
+	}
+	public int getMinTagLength() {
+		return this.minTagLength;
+	}
+	public void setMinTagLength(int minTagLength) {
+		this.minTagLength = minTagLength;
+	}
+	public boolean isEncodeKeys() {
+		return this.encodeKeys;
+	}
+	/**
+	 * Sets the flag to identify aggregates by dictionary encoded keys. Must be set before any Tuple instances are written to this collector.
+	 * @param encodeKeys true to encode keys, false otherwise
+	 */
+	public void setEncodeKeys(boolean encodeKeys) {
+		this.encodeKeys = encodeKeys;
+	}
+
+}
@@ -44,46 +44,61 @@ public class MemSortMergeShuffler implements Shuffler, Comparator<Tuple> {
 		Tuple mergedTuple = null;
 		for (Tuple tuple : tuples) {
 			if(mergedTuple == null ) {
-				mergedTuple = tuple.clone();
-				//Resetting values and sources so that they don't have references to original Tuple
-				mergedTuple.setValue(Fields.SOURCES, null);
-				mergedTuple.setValue(Fields.SOURCES,  new LinkedList(tuple.getList(Fields.SOURCES)));
-				mergedTuple.setValue(Fields.VALUES, null);
-				mergedTuple.addToList(Fields.VALUES, tuple.getList(Fields.VALUES).get(0));
+				mergedTuple = this.createMergedTuple(tuple);
 				continue;				
 			}
-			if (!mergedTuple.getString(Fields.KEY).equals(tuple.getString(Fields.KEY))) {
-				//Copying the list before adding to mergedTuple
+			if (!mergedTuple.getValue(Fields.KEY).equals(tuple.getValue(Fields.KEY))) {
 				sortMergeTuples.add(mergedTuple);
 				// now recreate the new mergedTuple with the current one
-				mergedTuple = tuple.clone();
-				//Resetting values and sources so that they don't have references to original Tuple
-				mergedTuple.setValue(Fields.SOURCES, null);
-				mergedTuple.setValue(Fields.SOURCES, new LinkedList(tuple.getList(Fields.SOURCES)));
-				mergedTuple.setValue(Fields.VALUES, null);
-				mergedTuple.addToList(Fields.VALUES, tuple.getList(Fields.VALUES).get(0));
-			} else if (mergedTuple.getString(Fields.KEY).equals(tuple.getString(Fields.KEY))) { // double check
-				//Add the source URIs				
-				for (Object uri:tuple.getList(Fields.SOURCES)) {
-					if(mergedTuple.getList(Fields.SOURCES)==null || !mergedTuple.getList(Fields.SOURCES).contains(uri))
-						mergedTuple.addToList(Fields.SOURCES, uri);
-				}
-				List<Object> oldTupleValues = new ArrayList<Object>();
-				oldTupleValues.addAll( tuple.getList(Fields.VALUES));
-				Collections.addAll(mergedTuple.getList(Fields.VALUES), oldTupleValues.toArray(new Object[0]));
-			} else { // this should never happen
-				throw new RuntimeException("Unable to sort and merge tuple data!");
+				mergedTuple = this.createMergedTuple(tuple);
+			} else {
+				this.mergeTuple(mergedTuple, tuple);
 			}
 		}
+		if (mergedTuple != null) { // add the last merged tuple
+			sortMergeTuples.add(mergedTuple);
+		}
 		return sortMergeTuples;
 	}
 
 	/**
-	 * Interface method implementation. Compares the keys of the specified Tuple instances using their natural ordering of characters
+	 * Creates a Tuple that subsequent Tuple instances having the same key may be merged into, using the specified Tuple as the first one
+	 * @param tuple the first Tuple for a key
+	 * @return the Tuple to merge Tuple instances having the same key into
+	 */
+	protected Tuple createMergedTuple(Tuple tuple) {
+		// sources are shared with the original Tuple until a source is added via Tuple#addToList, which copies the list
+		Tuple mergedTuple = tuple.clone();
+		//Resetting values so that they don't have references to original Tuple
+		mergedTuple.setValue(Fields.VALUES, null);
+		mergedTuple.addToList(Fields.VALUES, tuple.getList(Fields.VALUES).get(0));
+		return mergedTuple;
+	}
+
+	/**
+	 * Merges the sources and values of the specified Tuple into the specified merged Tuple. Both are expected to have the same key.
+	 * @param mergedTuple the Tuple created using {@link #createMergedTuple(Tuple)}
+	 * @param tuple the Tuple to merge
+	 */
+	protected void mergeTuple(Tuple mergedTuple, Tuple tuple) {
+		//Add the source URIs				
+		for (Object uri:tuple.getList(Fields.SOURCES)) {
+			if(mergedTuple.getList(Fields.SOURCES)==null || !mergedTuple.getList(Fields.SOURCES).contains(uri))
+				mergedTuple.addToList(Fields.SOURCES, uri);
+		}
+		List<Object> oldTupleValues = new ArrayList<Object>();
+		oldTupleValues.addAll( tuple.getList(Fields.VALUES));
+		Collections.addAll(mergedTuple.getList(Fields.VALUES), oldTupleValues.toArray(new Object[0]));
+	}
+
+	/**
+	 * Interface method implementation. Compares the keys of the specified Tuple instances using their natural ordering i.e. of characters for String
+	 * keys and subject first for {@link org.sift.runtime.TupleKey} keys
 	 * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
 	 */
+	@SuppressWarnings("unchecked")
 	public int compare(Tuple tuple1, Tuple tuple2) {
-		return tuple1.getString(Fields.KEY).compareTo(tuple2.getString(Fields.KEY));
+		return ((Comparable<Object>)tuple1.getValue(Fields.KEY)).compareTo(tuple2.getValue(Fields.KEY));
 	}
 
 }
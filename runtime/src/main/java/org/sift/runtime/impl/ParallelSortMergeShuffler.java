@@ -0,0 +1,188 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.sift.runtime.Fields;
+import org.sift.runtime.Tuple;
+import org.sift.runtime.spi.Shuffler;
+
+/**
+ * The <code>ParallelSortMergeShuffler</code> is a memory based {@link Shuffler} implementation that sorts and merges Tuple instances on multiple threads.
+ * Tuple instances are partitioned by ranges of their keys, using split points sampled from the keys. Each partition is then sorted and merged in the same
+ * way as {@link MemSortMergeShuffler} on a thread pool, and the partitions are concatenated in key order. The output is therefore identical to that of
+ * {@link MemSortMergeShuffler}. Call {@link #shutdown()}, for example as the destroy method of the bean, to stop the threads once done.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class ParallelSortMergeShuffler extends MemSortMergeShuffler {
+
+	/** Default values for the number of partitions, the number of keys sampled per partition and the min number of Tuple instances to sort in parallel */
+	private static final int PARTITIONS = Runtime.getRuntime().availableProcessors();
+	private static final int SAMPLES_PER_PARTITION = 100;
+	private static final int MIN_PARALLEL_SORT_SIZE = 10000;
+
+	/** The number of partitions i.e. max number of threads used to sort */
+	private int partitions = PARTITIONS;
+
+	/** The min number of Tuple instances to sort in parallel. Smaller lists are sorted on the calling thread */
+	private int minParallelSortSize = MIN_PARALLEL_SORT_SIZE;
+
+	/** The thread pool for sorting partitions, created on first use */
+	private ExecutorService executor;
+
+	/** Random for sampling keys, seeded so that partitioning is repeatable */
+	private Random random = new Random(0);
+
+	/**
+	 * Overriden superclass method. Partitions the specified Tuple list by ranges of keys, sorts and merges the partitions in parallel and concatenates them
+	 * @see org.sift.runtime.impl.MemSortMergeShuffler#sort(java.util.List)
+	 */
+	public List<Tuple> sort(List<Tuple> tuples) {
+		if (this.getPartitions() < 2 || tuples.isEmpty() || tuples.size() < this.getMinParallelSortSize()) {
+			return super.sort(tuples);
+		}
+		Object[] splitPoints = this.sampleSplitPoints(tuples);
+		List<List<Tuple>> partitionedTuples = new ArrayList<List<Tuple>>(splitPoints.length + 1);
+		for (int i = 0; i <= splitPoints.length; i++) {
+			partitionedTuples.add(new ArrayList<Tuple>(tuples.size() / (splitPoints.length + 1)));
+		}
+		// partitions retain the order of Tuple instances in the list so that the sort remains stable
+		for (Tuple tuple : tuples) {
+			int index = Arrays.binarySearch(splitPoints, tuple.getValue(Fields.KEY));
+			partitionedTuples.get(index < 0 ? -(index + 1) : index).add(tuple);
+		}
+		List<Future<List<Tuple>>> futures = new ArrayList<Future<List<Tuple>>>(partitionedTuples.size());
+		// partitions are submitted under the lock of shutdown(), so that the thread pool is not shut down while they are being submitted. Submitted
+		// partitions are sorted even if the pool is shut down afterwards
+		synchronized(this) {
+			ExecutorService executor = this.getExecutor();
+			for (final List<Tuple> partition : partitionedTuples) {
+				futures.add(executor.submit(new Callable<List<Tuple>>() {
+					public List<Tuple> call() throws Exception {
+						return ParallelSortMergeShuffler.super.sort(partition);
+					}
+				}));
+			}
+		}
+		List<Tuple> sortMergeTuples = new LinkedList<Tuple>();
+		try {
+			for (Future<List<Tuple>> future : futures) {
+				sortMergeTuples.addAll(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while sorting tuple data!", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Unable to sort and merge tuple data!", e.getCause());
+		}
+		return sortMergeTuples;
+	}
+
+	/**
+	 * Helper method to sample keys from the specified Tuple list and pick distinct split points that divide the keys into partitions of similar size.
+	 * All Tuple instances having the same key fall in the same partition, with keys equal to a split point going into the lower partition.
+	 * @param tuples the Tuple instances to sample
+	 * @return sorted array of distinct split points
+	 */
+	private Object[] sampleSplitPoints(List<Tuple> tuples) {
+		int sampleSize = this.getPartitions() * SAMPLES_PER_PARTITION;
+		int[] sampleIndices = new int[sampleSize];
+		synchronized(this.random) {
+			for (int i = 0; i < sampleSize; i++) {
+				sampleIndices[i] = this.random.nextInt(tuples.size());
+			}
+		}
+		// sorted indices let the samples be picked in one pass over lists that are not random access, such as LinkedList
+		Arrays.sort(sampleIndices);
+		Object[] samples = new Object[sampleSize];
+		Iterator<Tuple> iterator = tuples.iterator();
+		Tuple tuple = iterator.next();
+		int index = 0;
+		for (int i = 0; i < sampleSize; i++) {
+			while (index < sampleIndices[i]) {
+				tuple = iterator.next();
+				index++;
+			}
+			samples[i] = tuple.getValue(Fields.KEY);
+		}
+		Arrays.sort(samples);
+		List<Object> splitPoints = new ArrayList<Object>(this.getPartitions() - 1);
+		for (int i = 1; i < this.getPartitions(); i++) {
+			Object splitPoint = samples[i * SAMPLES_PER_PARTITION];
+			if (splitPoints.isEmpty() || !splitPoints.get(splitPoints.size() - 1).equals(splitPoint)) {
+				splitPoints.add(splitPoint);
+			}
+		}
+		return splitPoints.toArray();
+	}
+
+	/**
+	 * Stops the threads used to sort partitions, once the partitions submitted so far are sorted. Threads are created again if this shuffler is used
+	 * afterwards
+	 */
+	public synchronized void shutdown() {
+		if (this.executor != null) {
+			this.executor.shutdown();
+			this.executor = null;
+		}
+	}
+
+	/**
+	 * Helper method to return the thread pool, creating it if required. Threads are daemon threads and do not prevent the JVM from exiting.
+	 */
+	private synchronized ExecutorService getExecutor() {
+		if (this.executor == null) {
+			this.executor = Executors.newFixedThreadPool(this.getPartitions(), new ThreadFactory() {
+				private int count = 0;
+				public synchronized Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "sift-shuffler-" + (++count));
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return this.executor;
+	}
+
+	/** Getter/Setter methods */
+	public int getPartitions() {
+		return this.partitions;
+	}
+	public void setPartitions(int partitions) {
+		this.partitions = partitions;
+	}
+	public int getMinParallelSortSize() {
+		return this.minParallelSortSize;
+	}
+	public void setMinParallelSortSize(int minParallelSortSize) {
+		this.minParallelSortSize = minParallelSortSize;
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime.impl;
+
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Set;
+
+import org.sift.runtime.Fields;
+import org.sift.runtime.Tuple;
+
+/**
+ * The <code>TupleAggregate</code> holds the aggregated weight and distinct sources of {@link Tuple} instances having the same key. The first Tuple seen
+ * for the key is retained as the template for the merged Tuple. This class is not thread safe.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+class TupleAggregate {
+
+	/** The first Tuple seen for the key*/
+	private Tuple first;
+
+	/** The summed weight */
+	private int weight;
+
+	/** The distinct sources in the order of arrival */
+	private Set<Object> sources = new LinkedHashSet<Object>();
+
+	/**
+	 * Constructor for this class
+	 * @param first the first Tuple seen for the key, used as the template for the merged Tuple. Its sources and values are not added by this constructor
+	 */
+	TupleAggregate(Tuple first) {
+		this.first = first;
+	}
+
+	/**
+	 * Adds the sources and values of the specified Tuple to this aggregate. Values are treated as type integer and are summed up.
+	 * @param tuple the Tuple to add
+	 */
+	void add(Tuple tuple) {
+		for (Object uri : tuple.getList(Fields.SOURCES)) {
+			this.sources.add(uri);
+		}
+		for (Object value : tuple.getList(Fields.VALUES)) {
+			this.weight += (Integer)value;
+		}
+	}
+
+	/**
+	 * Adds the weight and sources of the specified aggregate to this aggregate
+	 * @param aggregate the aggregate, for the same key, to add
+	 */
+	void add(TupleAggregate aggregate) {
+		this.weight += aggregate.weight;
+		this.sources.addAll(aggregate.sources);
+	}
+
+	/**
+	 * Returns the summed weight of this aggregate
+	 * @return the summed weight
+	 */
+	int getWeight() {
+		return this.weight;
+	}
+
+	/**
+	 * Returns the first Tuple seen for the key
+	 * @return the template for the merged Tuple
+	 */
+	Tuple getFirst() {
+		return this.first;
+	}
+
+	/**
+	 * Creates the merged Tuple for this aggregate
+	 * @return Tuple with the aggregated weight as its only value
+	 */
+	Tuple toTuple() {
+		Tuple aggregatedTuple = this.first.clone();
+		aggregatedTuple.setValue(Fields.SOURCES, new LinkedList<Object>(this.sources));
+		aggregatedTuple.setValue(Fields.VALUES, null);
+		aggregatedTuple.addToList(Fields.VALUES, this.weight);
+		return aggregatedTuple;
+	}
+
+}
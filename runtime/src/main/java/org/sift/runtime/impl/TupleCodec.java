@@ -0,0 +1,173 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime.impl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.sift.runtime.Fields;
+import org.sift.runtime.Tuple;
+import org.sift.runtime.TupleKey;
+
+/**
+ * The <code>TupleCodec</code> writes and reads {@link Tuple} instances in a compact binary form, suitable for temporary run files. Field values may be
+ * null, String, Integer, Long, Double, URI, {@link TupleKey} or a List of these.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class TupleCodec {
+
+	/** Type markers for the supported field values */
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte INTEGER = 2;
+	private static final byte LONG = 3;
+	private static final byte DOUBLE = 4;
+	private static final byte URI_TYPE = 5;
+	private static final byte LIST = 6;
+	private static final byte TUPLE_KEY = 7;
+
+	/** The Fields, indexed by ordinal */
+	private static final Fields[] FIELDS = Fields.values();
+
+	/**
+	 * Writes the specified Tuple to the specified DataOutput
+	 * @param tuple the Tuple to write
+	 * @param out the DataOutput to write to
+	 * @throws IOException in case of errors writing the Tuple
+	 */
+	public static void write(Tuple tuple, DataOutput out) throws IOException {
+		List<Fields> fields = tuple.getFields();
+		out.writeByte(fields.size());
+		for (Fields field : fields) {
+			out.writeByte(field.ordinal());
+			writeValue(tuple.getValue(field), out);
+		}
+	}
+
+	/**
+	 * Reads a Tuple, written using {@link #write(Tuple, DataOutput)}, from the specified DataInput
+	 * @param in the DataInput to read from
+	 * @return the Tuple read
+	 * @throws IOException in case of errors reading the Tuple
+	 */
+	public static Tuple read(DataInput in) throws IOException {
+		int count = in.readUnsignedByte();
+		Fields[] fields = new Fields[count];
+		Object[] values = new Object[count];
+		for (int i = 0; i < count; i++) {
+			fields[i] = FIELDS[in.readUnsignedByte()];
+			values[i] = readValue(in);
+		}
+		Tuple tuple = new Tuple(fields);
+		for (int i = 0; i < count; i++) {
+			tuple.setValue(fields[i], values[i]);
+		}
+		return tuple;
+	}
+
+	/**
+	 * Helper method to write a single field value
+	 */
+	private static void writeValue(Object value, DataOutput out) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+		} else if (value instanceof String) {
+			out.writeByte(STRING);
+			writeString((String)value, out);
+		} else if (value instanceof Integer) {
+			out.writeByte(INTEGER);
+			out.writeInt((Integer)value);
+		} else if (value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong((Long)value);
+		} else if (value instanceof Double) {
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double)value);
+		} else if (value instanceof URI) {
+			out.writeByte(URI_TYPE);
+			writeString(((URI)value).toString(), out);
+		} else if (value instanceof TupleKey) {
+			out.writeByte(TUPLE_KEY);
+			writeString(((TupleKey)value).getSubject(), out);
+			writeString(((TupleKey)value).getTag(), out);
+		} else if (value instanceof List) {
+			List<?> list = (List<?>)value;
+			out.writeByte(LIST);
+			out.writeInt(list.size());
+			for (Object element : list) {
+				writeValue(element, out);
+			}
+		} else {
+			throw new IOException("Unsupported Tuple value type : " + value.getClass().getName());
+		}
+	}
+
+	/**
+	 * Helper method to read a single field value
+	 */
+	private static Object readValue(DataInput in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+			case NULL:
+				return null;
+			case STRING:
+				return readString(in);
+			case INTEGER:
+				return in.readInt();
+			case LONG:
+				return in.readLong();
+			case DOUBLE:
+				return in.readDouble();
+			case URI_TYPE:
+				return URI.create(readString(in));
+			case TUPLE_KEY:
+				return new TupleKey(readString(in), readString(in));
+			case LIST:
+				int size = in.readInt();
+				List<Object> list = new ArrayList<Object>(size);
+				for (int i = 0; i < size; i++) {
+					list.add(readValue(in));
+				}
+				return list;
+			default:
+				throw new IOException("Unrecognized Tuple value type marker : " + type);
+		}
+	}
+
+	/**
+	 * Helper method to write a String as length prefixed UTF-8 bytes. Unlike {@link DataOutput#writeUTF(String)} this has no length limit.
+	 */
+	private static void writeString(String value, DataOutput out) throws IOException {
+		byte[] bytes = value.getBytes("UTF-8");
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Helper method to read a String written using {@link #writeString(String, DataOutput)}
+	 */
+	private static String readString(DataInput in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, "UTF-8");
+	}
+}
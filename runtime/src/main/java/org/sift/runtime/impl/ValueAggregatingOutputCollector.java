@@ -32,9 +32,6 @@ import org.sift.runtime.spi.Shuffler;
  */
 public class ValueAggregatingOutputCollector implements OutputCollector {
 	
-	/** The Monitor object for serializing thread access*/
-	private static final Object MONITOR = new Object();
-	
 	/** The OutputCollector delegate */
 	protected OutputCollector delegate;
 	
@@ -63,7 +60,7 @@ public class ValueAggregatingOutputCollector implements OutputCollector {
 	 * @see org.sift.runtime.spi.OutputCollector#setTuples(org.sift.runtime.Tuple[])
 	 */
 	public void setTuples(Tuple... tuples) {
-		synchronized(MONITOR) {
+		synchronized(this) {
 			Collections.addAll(this.getEmittedTuples(), tuples);
 			List<Tuple> sortMergedTuples = this.shuffler.sort(this.getEmittedTuples());
 			Tuple[] aggregatedTuples = this.aggregateValue(sortMergedTuples);
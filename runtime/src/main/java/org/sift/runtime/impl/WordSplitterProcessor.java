@@ -22,6 +22,7 @@ import org.sift.runtime.Tuple;
 import org.sift.runtime.spi.OutputCollector;
 import org.sift.runtime.spi.Processor;
 import org.sift.winnow.StopWords;
+import org.sift.winnow.WordTokenizer;
 
 /**
  * The <code>WordSplitterProcessor</code> is an implementation of the {@link Processor} that splits {@link Tuple} values as words following standard
@@ -39,26 +40,37 @@ public class WordSplitterProcessor implements Processor {
 	private StopWords stopWords;
 
 	/**
-	 * Interface method implementation. Splits the string values in the specified Tuple into independent words
+	 * Interface method implementation. Splits the string values in the specified Tuple into independent words. Words and the n-grams that start at
+	 * a word are built in a single pass over the word offsets, and each n-gram String is created exactly once
 	 * @see org.sift.runtime.spi.Processor#process(org.sift.runtime.Tuple, org.sift.runtime.spi.OutputCollector)
 	 */
 	public void process(Tuple tuple, OutputCollector collector) {
 		Tuple returnTuple = tuple.clone();
 		returnTuple.setValue(Fields.VALUES, null);
 		List<Object> values = tuple.getList(Fields.VALUES);
+		WordTokenizer tokenizer = new WordTokenizer();
+		char[] gramChars = new char[64];
 		for(Object value:values) {
 			String line = (String) value;
-			String[] tokens = this.stopWords.split(line);
-			for (int i = 0; i < tokens.length; i++) {
-				StringBuffer tokenBuffer = new StringBuffer();
-				for (int j = 0; j < this.getnGram(); j++) {
-					if (i+j <  tokens.length) {
-						tokenBuffer.append(tokens[i+j]);
-						tokenBuffer.append(StopWords.WORD_BOUNDARY_STRING);
-					} else {
-						break;
+			int tokenCount = tokenizer.tokenize(line);
+			for (int i = 0; i < tokenCount; i++) {
+				// the (j+1)-gram is the j-gram in gramChars followed by a word boundary and the next word
+				int gramLength = 0;
+				for (int j = 0; j < this.getnGram() && i + j < tokenCount; j++) {
+					int start = tokenizer.getStart(i + j);
+					int end = tokenizer.getEnd(i + j);
+					int requiredLength = gramLength + 1 + end - start;
+					if (requiredLength > gramChars.length) {
+						char[] chars = new char[Math.max(requiredLength, gramChars.length * 2)];
+						System.arraycopy(gramChars, 0, chars, 0, gramLength);
+						gramChars = chars;
 					}
-					String word = tokenBuffer.toString().trim();
+					if (j > 0) {
+						gramChars[gramLength++] = StopWords.WORD_BOUNDARY_STRING.charAt(0);
+					}
+					line.getChars(start, end, gramChars, gramLength);
+					gramLength += end - start;
+					String word = new String(gramChars, 0, gramLength);
 					if (this.getStopWords() != null && !this.getStopWords().isStopWord(word)) {
 						returnTuple.addToList(Fields.VALUES, word);
 					}
@@ -74,7 +86,7 @@ public class WordSplitterProcessor implements Processor {
 	 * @return numbers of words found in the specified string
 	 */
 	public static int getWordsLength(String words) {
-		return words.split(StopWords.WORD_BOUNDARY).length;
+		return WordTokenizer.countSplitWords(words);
 	}
 
 	/** Getter/Setter for values */
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime.spi;
+
+import org.sift.runtime.Tuple;
+
+/**
+ * The <code>BatchProcessor</code> is a marker interface for {@link Processor} implementations that need all {@link Tuple} instances emitted by the preceding
+ * Processor to be available in the {@link OutputCollector}, for example to use {@link OutputCollector#getEmittedTuples()}. Processor chains that contain a
+ * BatchProcessor are not streamed Tuple by Tuple.
+ * 
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public interface BatchProcessor extends Processor {
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime.test;
+
+import java.util.List;
+import java.util.Random;
+
+import org.sift.runtime.Fields;
+import org.sift.runtime.Tuple;
+import org.sift.runtime.impl.WordSplitterProcessor;
+import org.sift.runtime.spi.OutputCollector;
+import org.sift.winnow.StopWords;
+
+/**
+ * <code>NGramBenchmark </code> measures the throughput, in input tokens per second, of {@link WordSplitterProcessor} for n-grams of 1 to 6 words.
+ * Lines are made of words picked at random from a vocabulary that includes stop words. The number of lines may be passed as an argument.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class NGramBenchmark {
+
+	/** Default number of lines, and words per line */
+	private static final int LINES = 200000;
+	private static final int WORDS_PER_LINE = 20;
+
+	/** Words that lines are made of */
+	private static final String[] VOCABULARY = {
+		"the","food","was","good","and","service","at","this","restaurant","slow","but","staff","friendly","a","great","place","for","dinner",
+		"with","family","prices","are","reasonable","ambience","could","be","better","will","visit","again",
+	};
+
+	/** The max n-gram size measured */
+	private static final int MAX_N_GRAM = 6;
+
+	/** Sink for results, so that the processed tuples are not optimized away */
+	private long sink;
+
+	public NGramBenchmark(int lineCount) {
+		Tuple[] tuples = this.createTuples(lineCount);
+		OutputCollector collector = new OutputCollector() {
+			public void emit(Tuple tuple) {
+				sink += tuple.getList(Fields.VALUES).size();
+			}
+			public List<Tuple> getEmittedTuples() {
+				return null;
+			}
+			public void setTuples(Tuple... tuples) {
+			}
+		};
+		WordSplitterProcessor processor = new WordSplitterProcessor();
+		processor.setStopWords(new StopWords());
+		for (int run = 0; run < 2; run++) { // the first run warms up
+			for (int nGram = 1; nGram <= MAX_N_GRAM; nGram++) {
+				processor.setnGram(nGram);
+				long start = System.nanoTime();
+				for (Tuple tuple : tuples) {
+					processor.process(tuple, collector);
+				}
+				long elapsed = System.nanoTime() - start;
+				if (run > 0) {
+					System.out.println("nGram " + nGram + " : " + (long)(((long)lineCount * WORDS_PER_LINE) / (elapsed / 1000000000.0)) + " tokens/sec");
+				}
+			}
+		}
+	}
+
+	private Tuple[] createTuples(int lineCount) {
+		Random random = new Random(lineCount);
+		Tuple[] tuples = new Tuple[lineCount];
+		for (int i = 0; i < lineCount; i++) {
+			StringBuilder line = new StringBuilder();
+			for (int j = 0; j < WORDS_PER_LINE; j++) {
+				line.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(j % 7 == 6 ? ", " : " ");
+			}
+			tuples[i] = new Tuple(Fields.KEY,Fields.SOURCES,Fields.VALUES);
+			tuples[i].setValue(Fields.KEY, "subject");
+			tuples[i].addToList(Fields.VALUES, line.toString());
+		}
+		return tuples;
+	}
+
+	public static void main(String[] args) {
+		new NGramBenchmark(args.length > 0 ? Integer.parseInt(args[0]) : LINES);
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime.test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.sift.runtime.Fields;
+import org.sift.runtime.Tuple;
+import org.sift.runtime.impl.DictionarySortMergeShuffler;
+import org.sift.runtime.impl.MemSortMergeShuffler;
+import org.sift.runtime.impl.ParallelSortMergeShuffler;
+import org.sift.runtime.spi.Shuffler;
+
+/**
+ * <code>ShufflerBenchmark </code> compares the time taken by {@link MemSortMergeShuffler}, {@link ParallelSortMergeShuffler} and {@link DictionarySortMergeShuffler} to sort and merge
+ * Tuple instances. Tuple counts may be passed as arguments and default to 1M, 10M and 50M. Larger counts need a correspondingly large heap (-Xmx).
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class ShufflerBenchmark {
+
+	/** Default tuple counts */
+	private static final int[] TUPLE_COUNTS = {1000000, 10000000, 50000000};
+
+	/** Number of distinct subjects and phrases per subject */
+	private static final int SUBJECTS = 5000;
+	private static final int PHRASES = 20000;
+
+	public ShufflerBenchmark(int tupleCount) throws Exception {
+		Shuffler[] shufflers = {new MemSortMergeShuffler(), new ParallelSortMergeShuffler(), new DictionarySortMergeShuffler()};
+		for (Shuffler shuffler : shufflers) {
+			List<Tuple> tuples = this.createTuples(tupleCount);
+			System.gc();
+			long start = System.nanoTime();
+			List<Tuple> sortMergedTuples = shuffler.sort(tuples);
+			long elapsed = (System.nanoTime() - start) / 1000000;
+			System.out.println(shuffler.getClass().getSimpleName() + " : " + tupleCount + " tuples, " + sortMergedTuples.size() + " merged, " + elapsed + " ms");
+		}
+	}
+
+	private List<Tuple> createTuples(int tupleCount) throws Exception {
+		Random random = new Random(tupleCount);
+		URI source = new URI("reviews.txt#1");
+		List<Tuple> tuples = new ArrayList<Tuple>(tupleCount);
+		for (int i = 0; i < tupleCount; i++) {
+			Tuple tuple = new Tuple(Fields.KEY,Fields.SOURCES,Fields.VALUES);
+			tuple.setValue(Fields.KEY, "subject" + random.nextInt(SUBJECTS) + Tuple.KEY_SEP_CHAR + "phrase" + random.nextInt(PHRASES));
+			tuple.addToList(Fields.SOURCES, source);
+			tuple.addToList(Fields.VALUES, 1);
+			tuples.add(tuple);
+		}
+		return tuples;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int[] tupleCounts = TUPLE_COUNTS;
+		if (args.length > 0) {
+			tupleCounts = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				tupleCounts[i] = Integer.parseInt(args[i]);
+			}
+		}
+		for (int tupleCount : tupleCounts) {
+			new ShufflerBenchmark(tupleCount);
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.runtime.test;
+
+import java.lang.management.ManagementFactory;
+
+import org.sift.runtime.Fields;
+import org.sift.runtime.Tuple;
+
+/**
+ * <code>TupleBenchmark </code> measures the throughput of {@link Tuple} get, set and clone operations and the bytes allocated per operation, where the JVM
+ * supports measuring thread allocation. Each operation is warmed up before it is measured. The number of operations per measurement may be passed as an argument.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class TupleBenchmark {
+
+	/** Default number of operations per measurement */
+	private static final int OPERATIONS = 50000000;
+
+	/** Sink for results, so that the measured operations are not optimized away */
+	private long sink;
+
+	/** Bytes allocated by this thread at the start of a measurement */
+	private long allocatedBytes;
+
+	public TupleBenchmark(int operations) {
+		Tuple tuple = new Tuple(Fields.KEY,Fields.SOURCES,Fields.VALUES,Fields.TAG,Fields.GROUP);
+		tuple.setValue(Fields.KEY, "subject:phrase");
+		tuple.addToList(Fields.SOURCES, "reviews.txt#1");
+		tuple.addToList(Fields.VALUES, 1);
+		tuple.setValue(Fields.TAG, "subject");
+		for (int run = 0; run < 2; run++) { // the first run warms up
+			boolean report = run > 0;
+			this.measure("getValue", operations, report, this.get(tuple, operations));
+			this.measure("setValue", operations, report, this.set(tuple, operations));
+			this.measure("setInt/getInt", operations, report, this.primitive(tuple, operations));
+			this.measure("clone", operations / 10, report, this.clone(tuple, operations / 10));
+			this.measure("clone/setValue", operations / 10, report, this.cloneAndSet(tuple, operations / 10));
+			this.measure("clone/addToList", operations / 10, report, this.cloneAndAdd(tuple, operations / 10));
+		}
+	}
+
+	private long get(Tuple tuple, int operations) {
+		this.allocatedBytes = this.getAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < operations; i++) {
+			this.sink += tuple.getValue(Fields.TAG).hashCode();
+		}
+		return System.nanoTime() - start;
+	}
+
+	private long set(Tuple tuple, int operations) {
+		this.allocatedBytes = this.getAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < operations; i++) {
+			tuple.setValue(Fields.GROUP, tuple);
+		}
+		return System.nanoTime() - start;
+	}
+
+	private long primitive(Tuple tuple, int operations) {
+		tuple.addField(Fields.SENTIMENT);
+		this.allocatedBytes = this.getAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < operations; i++) {
+			tuple.setInt(Fields.SENTIMENT, i);
+			this.sink += tuple.getInt(Fields.SENTIMENT);
+		}
+		return System.nanoTime() - start;
+	}
+
+	private long clone(Tuple tuple, int operations) {
+		this.allocatedBytes = this.getAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < operations; i++) {
+			this.sink += tuple.clone().getFields().size();
+		}
+		return System.nanoTime() - start;
+	}
+
+	private long cloneAndSet(Tuple tuple, int operations) {
+		this.allocatedBytes = this.getAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < operations; i++) {
+			Tuple clone = tuple.clone();
+			clone.setValue(Fields.KEY, "phrase");
+			this.sink += clone.getFields().size();
+		}
+		return System.nanoTime() - start;
+	}
+
+	private long cloneAndAdd(Tuple tuple, int operations) {
+		this.allocatedBytes = this.getAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < operations; i++) {
+			Tuple clone = tuple.clone();
+			clone.addToList(Fields.SOURCES, "reviews.txt#2");
+			this.sink += clone.getFields().size();
+		}
+		return System.nanoTime() - start;
+	}
+
+	private void measure(String operation, int operations, boolean report, long elapsedNanos) {
+		long allocated = this.getAllocatedBytes() - this.allocatedBytes;
+		if (report) {
+			System.out.println(operation + " : " + (long)(operations / (elapsedNanos / 1000000000.0)) + " ops/sec, " 
+					+ (this.allocatedBytes < 0 ? "n/a" : String.valueOf(allocated / operations)) + " bytes/op");
+		}
+	}
+
+	private long getAllocatedBytes() {
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	public static void main(String[] args) {
+		new TupleBenchmark(args.length > 0 ? Integer.parseInt(args[0]) : OPERATIONS);
+	}
+}
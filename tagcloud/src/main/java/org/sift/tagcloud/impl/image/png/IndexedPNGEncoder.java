@@ -0,0 +1,295 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.tagcloud.impl.image.png;
+
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * The <code>IndexedPNGEncoder</code> writes 8 bit palette based PNG images i.e. one byte per pixel that is an index into a palette of at most 256
+ * colors, with alpha. The deflate compression level and the scanline filter strategy are configurable. Palette images usually compress best without
+ * filtering, as differences between palette indices carry no meaning. This class is thread safe.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class IndexedPNGEncoder {
+
+	/**
+	 * The scanline filters of the PNG specification. ADAPTIVE picks, for every row, the filter that yields the smallest sum of absolute differences
+	 */
+	public enum FilterStrategy {
+		NONE,SUB,UP,AVERAGE,PAETH,ADAPTIVE
+	}
+
+	/** The PNG file signature */
+	private static final byte[] SIGNATURE = {(byte)0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+	/** PNG constants for palette images of 8 bits per pixel */
+	private static final int BIT_DEPTH = 8;
+	private static final int COLOR_TYPE_PALETTE = 3;
+
+	/** The max size of an IDAT chunk */
+	private static final int IDAT_CHUNK_SIZE = 32 * 1024;
+
+	/** The deflate compression level and the scanline filter strategy */
+	private int compressionLevel;
+	private FilterStrategy filterStrategy;
+
+	/**
+	 * Constructor for this class
+	 * @param compressionLevel the deflate compression level, from 0 to 9 or -1 for the default level
+	 * @param filterStrategy the scanline filter strategy
+	 */
+	public IndexedPNGEncoder(int compressionLevel, FilterStrategy filterStrategy) {
+		if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+			throw new IllegalArgumentException("Compression level must be between -1 and 9 : " + compressionLevel);
+		}
+		if (filterStrategy == null) {
+			throw new IllegalArgumentException("Filter strategy cannot be null");
+		}
+		this.compressionLevel = compressionLevel;
+		this.filterStrategy = filterStrategy;
+	}
+
+	/**
+	 * Writes the specified palette indices as a PNG image to the specified stream. The stream is not closed
+	 * @param indices the palette index of every pixel, in rows from top to bottom
+	 * @param width the width of the image
+	 * @param height the height of the image
+	 * @param palette the palette, of at most 256 colors
+	 * @param outputStream the stream to write the PNG image to
+	 * @throws IOException in case of errors writing to the stream
+	 */
+	public void encode(byte[] indices, int width, int height, IndexColorModel palette, OutputStream outputStream) throws IOException {
+		if (width <= 0 || height <= 0 || indices.length < width * height) {
+			throw new IllegalArgumentException("Invalid image size : " + width + "x" + height + " for " + indices.length + " pixels");
+		}
+		if (palette.getMapSize() > 256) {
+			throw new IllegalArgumentException("Palette cannot have more than 256 colors : " + palette.getMapSize());
+		}
+		outputStream.write(SIGNATURE);
+
+		byte[] header = new byte[13];
+		writeInt(header, 0, width);
+		writeInt(header, 4, height);
+		header[8] = BIT_DEPTH;
+		header[9] = COLOR_TYPE_PALETTE;
+		// compression, filter and interlace methods are all 0
+		writeChunk(outputStream, "IHDR", header, header.length);
+
+		int colors = palette.getMapSize();
+		byte[] plte = new byte[colors * 3];
+		byte[] trns = new byte[colors];
+		int trnsLength = 0;
+		for (int i = 0; i < colors; i++) {
+			int argb = palette.getRGB(i);
+			plte[i * 3] = (byte)(argb >> 16);
+			plte[i * 3 + 1] = (byte)(argb >> 8);
+			plte[i * 3 + 2] = (byte)argb;
+			trns[i] = (byte)(argb >>> 24);
+			if (trns[i] != (byte)0xFF) {
+				trnsLength = i + 1; // trailing opaque entries may be omitted
+			}
+		}
+		writeChunk(outputStream, "PLTE", plte, plte.length);
+		if (trnsLength > 0) {
+			writeChunk(outputStream, "tRNS", trns, trnsLength);
+		}
+
+		Deflater deflater = new Deflater(this.compressionLevel);
+		try {
+			IDATOutputStream idat = new IDATOutputStream(outputStream);
+			DeflaterOutputStream out = new DeflaterOutputStream(idat, deflater, IDAT_CHUNK_SIZE);
+			this.writeScanlines(indices, width, height, out);
+			out.finish();
+			idat.flushChunk();
+		} finally {
+			deflater.end();
+		}
+		writeChunk(outputStream, "IEND", new byte[0], 0);
+	}
+
+	/**
+	 * Helper method to filter the rows of the image and write them, each preceded by its filter type
+	 */
+	private void writeScanlines(byte[] indices, int width, int height, OutputStream out) throws IOException {
+		byte[] previous = new byte[width]; // the row above the first row is taken to be all zeros
+		byte[] current = new byte[width];
+		byte[][] filtered = new byte[5][width + 1];
+		for (int row = 0; row < height; row++) {
+			System.arraycopy(indices, row * width, current, 0, width);
+			byte[] line;
+			switch (this.filterStrategy) {
+				case NONE:
+					line = filter(0, current, previous, filtered[0]);
+					break;
+				case SUB:
+					line = filter(1, current, previous, filtered[1]);
+					break;
+				case UP:
+					line = filter(2, current, previous, filtered[2]);
+					break;
+				case AVERAGE:
+					line = filter(3, current, previous, filtered[3]);
+					break;
+				case PAETH:
+					line = filter(4, current, previous, filtered[4]);
+					break;
+				default:
+					line = null;
+					long smallestSum = Long.MAX_VALUE;
+					for (int type = 0; type < filtered.length; type++) {
+						byte[] candidate = filter(type, current, previous, filtered[type]);
+						long sum = 0;
+						for (int i = 1; i < candidate.length && sum < smallestSum; i++) {
+							sum += Math.abs(candidate[i]);
+						}
+						if (sum < smallestSum) {
+							smallestSum = sum;
+							line = candidate;
+						}
+					}
+			}
+			out.write(line);
+			byte[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+	}
+
+	/**
+	 * Helper method to apply the specified filter type to a row, for one byte per pixel. Returns the filtered row, preceded by the filter type
+	 */
+	private static byte[] filter(int type, byte[] current, byte[] previous, byte[] filtered) {
+		filtered[0] = (byte)type;
+		int width = current.length;
+		switch (type) {
+			case 0:
+				System.arraycopy(current, 0, filtered, 1, width);
+				break;
+			case 1:
+				filtered[1] = current[0];
+				for (int i = 1; i < width; i++) {
+					filtered[i + 1] = (byte)(current[i] - current[i - 1]);
+				}
+				break;
+			case 2:
+				for (int i = 0; i < width; i++) {
+					filtered[i + 1] = (byte)(current[i] - previous[i]);
+				}
+				break;
+			case 3:
+				filtered[1] = (byte)(current[0] - ((previous[0] & 0xFF) >> 1));
+				for (int i = 1; i < width; i++) {
+					filtered[i + 1] = (byte)(current[i] - (((current[i - 1] & 0xFF) + (previous[i] & 0xFF)) >> 1));
+				}
+				break;
+			default:
+				filtered[1] = (byte)(current[0] - previous[0]); // Paeth predicts the byte above, when there is no byte to the left
+				for (int i = 1; i < width; i++) {
+					int a = current[i - 1] & 0xFF;
+					int b = previous[i] & 0xFF;
+					int c = previous[i - 1] & 0xFF;
+					int p = a + b - c;
+					int pa = Math.abs(p - a);
+					int pb = Math.abs(p - b);
+					int pc = Math.abs(p - c);
+					int predictor = (pa <= pb && pa <= pc) ? a : (pb <= pc ? b : c);
+					filtered[i + 1] = (byte)(current[i] - predictor);
+				}
+		}
+		return filtered;
+	}
+
+	/**
+	 * Helper method to write a chunk i.e. its length, type, data and the CRC of the type and data
+	 */
+	private static void writeChunk(OutputStream out, String type, byte[] data, int length) throws IOException {
+		byte[] typeBytes = type.getBytes("US-ASCII");
+		byte[] lengthBytes = new byte[4];
+		writeInt(lengthBytes, 0, length);
+		out.write(lengthBytes);
+		out.write(typeBytes);
+		out.write(data, 0, length);
+		CRC32 crc = new CRC32();
+		crc.update(typeBytes);
+		crc.update(data, 0, length);
+		byte[] crcBytes = new byte[4];
+		writeInt(crcBytes, 0, (int)crc.getValue());
+		out.write(crcBytes);
+	}
+
+	/**
+	 * Helper method to write an int in network byte order
+	 */
+	private static void writeInt(byte[] bytes, int offset, int value) {
+		bytes[offset] = (byte)(value >>> 24);
+		bytes[offset + 1] = (byte)(value >>> 16);
+		bytes[offset + 2] = (byte)(value >>> 8);
+		bytes[offset + 3] = (byte)value;
+	}
+
+	/** Start Getter methods */
+	public int getCompressionLevel() {
+		return this.compressionLevel;
+	}
+	public FilterStrategy getFilterStrategy() {
+		return this.filterStrategy;
+	}
+	/** End Getter methods */
+
+	/**
+	 * Stream that writes compressed image data as a sequence of IDAT chunks
+	 */
+	private static class IDATOutputStream extends OutputStream {
+		private OutputStream out;
+		private byte[] buffer = new byte[IDAT_CHUNK_SIZE];
+		private int count;
+		IDATOutputStream(OutputStream out) {
+			this.out = out;
+		}
+		public void write(int b) throws IOException {
+			if (this.count == this.buffer.length) {
+				this.flushChunk();
+			}
+			this.buffer[this.count++] = (byte)b;
+		}
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			while (length > 0) {
+				if (this.count == this.buffer.length) {
+					this.flushChunk();
+				}
+				int n = Math.min(length, this.buffer.length - this.count);
+				System.arraycopy(bytes, offset, this.buffer, this.count, n);
+				this.count += n;
+				offset += n;
+				length -= n;
+			}
+		}
+		void flushChunk() throws IOException {
+			if (this.count > 0) {
+				writeChunk(this.out, "IDAT", this.buffer, this.count);
+				this.count = 0;
+			}
+		}
+	}
+
+}
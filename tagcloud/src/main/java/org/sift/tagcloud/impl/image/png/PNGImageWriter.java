@@ -23,8 +23,14 @@ import java.awt.RenderingHints;
 import java.awt.Stroke;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.Deflater;
 
 import javax.imageio.ImageIO;
 
@@ -41,24 +47,70 @@ import org.sift.tagcloud.ui.DisplayTagCloud;
  */
 public class PNGImageWriter<S extends DisplayTag> extends ImageFileWriter<S> {
 	
+	/** Separates the file name of an image from the width of its variants */
+	private static final String VARIANT_WIDTH_SEP = "_";
+	
+	/** Images are written with a palette of the tag colors and their antialiasing ramps when true, and as ARGB images otherwise */
+	private boolean indexedPalette;
+	
+	/** The deflate compression level and the scanline filter strategy of palette images */
+	private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+	private IndexedPNGEncoder.FilterStrategy filterStrategy = IndexedPNGEncoder.FilterStrategy.NONE;
+	
+	/** The widths of the variants written along with each image, may be null */
+	private List<Integer> imageWidths;
+	
 	/** Constructor for this class*/
 	public PNGImageWriter() {
 		super(ImageFileWriter.PNG);
 	}
 
 	/**
-	 * Writes the specified DisplayCloud as a PNG image to the specified file location
+	 * Writes the specified DisplayCloud as a PNG image to the specified file location. Also writes a variant of the image for each of the
+	 * {@link #getImageWidths()}, alongside the file, from the same layout
 	 * @see org.sift.tagcloud.spi.image.ImageFileWriter#writeImageContents(java.io.File, org.sift.tagcloud.ui.DisplayTagCloud)
 	 */
 	protected void writeImageContents(File file, DisplayTagCloud<S> displayTagCloud) throws RuntimeException {
+		// the palette, and the nearest palette entries it remembers, are shared by all variants
+		TagCloudPalette palette = this.isIndexedPalette() ? TagCloudPalette.create(displayTagCloud.getTagsList()) : null;
+		this.writeImage(file, displayTagCloud, displayTagCloud.getPreferredImageWidth(), palette);
+		if (this.getImageWidths() != null) {
+			for (Integer imageWidth : this.getImageWidths()) {
+				File variantFile = new File(file.getParentFile(), this.getVariantFileName(file.getName(), imageWidth));
+				if (variantFile.exists()) {
+					variantFile.delete();
+				}
+				this.writeImage(variantFile, displayTagCloud, imageWidth, palette);
+			}
+		}
+	}
+
+	/**
+	 * Returns the name of the file for the variant of the specified width, of the image in the specified file. For example "subject_320.png" for
+	 * "subject.png"
+	 * @param fileName the name of the image file
+	 * @param imageWidth the width of the variant
+	 * @return the name of the variant file
+	 */
+	public String getVariantFileName(String fileName, int imageWidth) {
+		int extensionIndex = fileName.lastIndexOf(ImageFileWriter.FILE_EXTENSION_SEP);
+		String name = extensionIndex < 0 ? fileName : fileName.substring(0, extensionIndex);
+		return name + VARIANT_WIDTH_SEP + imageWidth + ImageFileWriter.FILE_EXTENSION_SEP + this.getImageFileType();
+	}
+
+	/**
+	 * Helper method to draw the tags, scaled to the specified width if not null, and write the image to the specified file. The image is written as an
+	 * ARGB image if the palette is null
+	 */
+	private void writeImage(File file, DisplayTagCloud<S> displayTagCloud, Integer imageWidth, TagCloudPalette palette) throws RuntimeException {
 		
 		AffineTransform scale = new AffineTransform();
 		Dimension imageDimension=new Dimension((int)displayTagCloud.getImageBounds().getWidth(),(int)displayTagCloud.getImageBounds().getHeight());	
 		
-		if (displayTagCloud.getPreferredImageWidth()!=null) {
-			double ratio=displayTagCloud.getPreferredImageWidth()/imageDimension.getWidth();
-			imageDimension.width=displayTagCloud.getPreferredImageWidth();
-			imageDimension.height=(int)(imageDimension.getHeight()*ratio);
+		if (imageWidth!=null) {
+			double ratio=imageWidth/imageDimension.getWidth();
+			imageDimension.width=imageWidth;
+			imageDimension.height=Math.max(1, (int)(imageDimension.getHeight()*ratio));
 			scale=AffineTransform.getScaleInstance(ratio, ratio);
 		}		
 		
@@ -86,11 +138,87 @@ public class PNGImageWriter<S extends DisplayTag> extends ImageFileWriter<S> {
 		
 		g.dispose();
 		try {
-			ImageIO.write(img, ImageFileWriter.PNG, file);
+			if (palette == null) {
+				ImageIO.write(img, ImageFileWriter.PNG, file);
+			} else {
+				this.writeIndexedImage(img, palette, file);
+			}
 		} catch (IOException e) {
 			throw new RuntimeException("Error writing output file for display cloud : " + displayTagCloud.getSubject() + " to file : " + file.getAbsolutePath(),e);
 		}
 		
 	}
 
+	/**
+	 * Helper method to map the pixels of the specified ARGB image to the specified palette and write them as a palette based PNG image
+	 */
+	private void writeIndexedImage(BufferedImage img, TagCloudPalette palette, File file) throws IOException {
+		int[] pixels = ((DataBufferInt)img.getRaster().getDataBuffer()).getData();
+		byte[] indices = new byte[pixels.length];
+		palette.quantize(pixels, indices);
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+		try {
+			new IndexedPNGEncoder(this.getCompressionLevel(), this.getFilterStrategy()).encode(indices, img.getWidth(), img.getHeight(),
+					palette.getColorModel(), out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/** Start Getter/Setter methods */
+	public List<Integer> getImageWidths() {
+		return this.imageWidths;
+	}
+	/**
+	 * Sets the widths of the variants written along with each image, e.g. for thumbnails. Variants are drawn from the same layout as the image, so a tag
+	 * cloud is laid out once for all sizes. The variant of width 320 of "subject.png" is written to "subject_320.png" in the same directory
+	 * @param imageWidths the widths of the variants, each must be positive. Null or empty for no variants
+	 */
+	public void setImageWidths(List<Integer> imageWidths) {
+		if (imageWidths != null) {
+			for (Integer imageWidth : imageWidths) {
+				if (imageWidth == null || imageWidth <= 0) {
+					throw new IllegalArgumentException("Image widths must be positive : " + imageWidths);
+				}
+			}
+		}
+		this.imageWidths = imageWidths;
+	}
+	public boolean isIndexedPalette() {
+		return this.indexedPalette;
+	}
+	/**
+	 * Sets the palette mode, where images are written with one byte per pixel that indexes a palette of the tag colors and their antialiasing ramps,
+	 * instead of four bytes per pixel. Palette images are several times smaller and faster to encode. Tag clouds having too many distinct colors for a
+	 * palette are written as ARGB images
+	 * @param indexedPalette true for palette images, false for ARGB images
+	 */
+	public void setIndexedPalette(boolean indexedPalette) {
+		this.indexedPalette = indexedPalette;
+	}
+	public int getCompressionLevel() {
+		return this.compressionLevel;
+	}
+	/**
+	 * Sets the deflate compression level of palette images
+	 * @param compressionLevel from 0 for no compression to 9 for best compression, or -1 for the default level
+	 */
+	public void setCompressionLevel(int compressionLevel) {
+		if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+			throw new IllegalArgumentException("Compression level must be between -1 and 9 : " + compressionLevel);
+		}
+		this.compressionLevel = compressionLevel;
+	}
+	public IndexedPNGEncoder.FilterStrategy getFilterStrategy() {
+		return this.filterStrategy;
+	}
+	/**
+	 * Sets the scanline filter strategy of palette images. Filtering seldom helps palette images, and NONE is the default
+	 * @param filterStrategy the scanline filter strategy
+	 */
+	public void setFilterStrategy(IndexedPNGEncoder.FilterStrategy filterStrategy) {
+		this.filterStrategy = filterStrategy;
+	}
+	/** End Getter/Setter methods */
+
 }
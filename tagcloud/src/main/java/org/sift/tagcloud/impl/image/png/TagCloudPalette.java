@@ -0,0 +1,202 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.tagcloud.impl.image.png;
+
+import java.awt.Color;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.sift.tagcloud.ui.DisplayTag;
+
+/**
+ * The <code>TagCloudPalette</code> is a palette of at most 256 colors for the image of a tag cloud. It holds the transparent background and, for each fill
+ * and stroke color of the tags, antialiasing ramps i.e. the color at increasing alpha, for edges drawn over the background, and the blends of each fill
+ * color into its stroke color, for the inner edges of strokes. Antialiased ARGB pixels are mapped to the nearest palette entry. This class is not thread
+ * safe.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+class TagCloudPalette {
+
+	/** The max number of palette entries */
+	private static final int MAX_COLORS = 256;
+
+	/** The min and max number of steps in an antialiasing ramp */
+	private static final int MIN_RAMP_LEVELS = 4;
+	private static final int MAX_RAMP_LEVELS = 8;
+
+	/** The number of pixel colors whose nearest palette entry is remembered, a power of 2 */
+	private static final int CACHE_SIZE = 4096;
+
+	/** The palette entries as non premultiplied ARGB, and their premultiplied components */
+	private int[] colors = new int[MAX_COLORS];
+	private int[][] premultiplied = new int[MAX_COLORS][];
+	private int size;
+
+	/** Pixel colors and their nearest palette entry. Transparent pixels are not cached, so a 0 key marks an empty slot */
+	private int[] cacheKeys = new int[CACHE_SIZE];
+	private byte[] cacheIndices = new byte[CACHE_SIZE];
+
+	/**
+	 * Creates the palette for the specified tags
+	 * @param tags the tags drawn in the image
+	 * @return the palette, or null if the tags use too many colors for antialiasing ramps to fit in a palette
+	 */
+	static TagCloudPalette create(List<? extends DisplayTag> tags) {
+		Set<Integer> tagColors = new LinkedHashSet<Integer>();
+		Set<Long> blends = new LinkedHashSet<Long>();
+		for (DisplayTag tag : tags) {
+			Color fill = tag.getFill();
+			Color stroke = tag.getStroke();
+			if (fill != null) {
+				tagColors.add(fill.getRGB());
+			}
+			if (stroke != null) {
+				tagColors.add(stroke.getRGB());
+			}
+			if (fill != null && stroke != null && fill.getRGB() != stroke.getRGB()) {
+				blends.add(((long)fill.getRGB() << 32) | (stroke.getRGB() & 0xFFFFFFFFL));
+			}
+		}
+		TagCloudPalette palette = new TagCloudPalette();
+		palette.add(0); // the transparent background
+		if (tagColors.isEmpty()) {
+			return palette;
+		}
+		int levels = Math.min(MAX_RAMP_LEVELS, (MAX_COLORS - 1) / (tagColors.size() + blends.size()));
+		if (levels < MIN_RAMP_LEVELS) {
+			return null;
+		}
+		for (int color : tagColors) {
+			for (int level = 1; level <= levels; level++) {
+				palette.add(blend(color & 0x00FFFFFF, color, level, levels));
+			}
+		}
+		for (long blend : blends) {
+			for (int level = 1; level < levels; level++) {
+				palette.add(blend((int)(blend >>> 32), (int)blend, level, levels));
+			}
+		}
+		return palette;
+	}
+
+	/**
+	 * Maps the specified ARGB pixels to palette indices
+	 * @param pixels non premultiplied ARGB pixels
+	 * @param indices the palette index of every pixel
+	 */
+	void quantize(int[] pixels, byte[] indices) {
+		for (int i = 0; i < pixels.length; i++) {
+			int argb = pixels[i];
+			if ((argb >>> 24) == 0) {
+				indices[i] = 0;
+				continue;
+			}
+			int slot = (argb * 0x9E3779B1) >>> 20; // Fibonacci hashing into 12 bits
+			if (this.cacheKeys[slot] != argb) {
+				this.cacheKeys[slot] = argb;
+				this.cacheIndices[slot] = (byte)this.findNearest(argb);
+			}
+			indices[i] = this.cacheIndices[slot];
+		}
+	}
+
+	/**
+	 * Returns this palette as an IndexColorModel
+	 * @return IndexColorModel having the entries of this palette
+	 */
+	IndexColorModel getColorModel() {
+		return new IndexColorModel(8, this.size, this.colors, 0, true, -1, DataBuffer.TYPE_BYTE);
+	}
+
+	/**
+	 * Returns the number of palette entries
+	 * @return the number of palette entries
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Helper method to add an entry, unless the palette has it already
+	 */
+	private void add(int argb) {
+		for (int i = 0; i < this.size; i++) {
+			if (this.colors[i] == argb) {
+				return;
+			}
+		}
+		this.colors[this.size] = argb;
+		this.premultiplied[this.size] = premultiply(argb);
+		this.size++;
+	}
+
+	/**
+	 * Helper method to return the index of the palette entry nearest to the specified color, comparing premultiplied components
+	 */
+	private int findNearest(int argb) {
+		int[] target = premultiply(argb);
+		int nearest = 0;
+		int smallestDistance = Integer.MAX_VALUE;
+		for (int i = 0; i < this.size; i++) {
+			int[] entry = this.premultiplied[i];
+			int distance = 0;
+			for (int c = 0; c < 4; c++) {
+				int d = entry[c] - target[c];
+				distance += d * d;
+			}
+			if (distance < smallestDistance) {
+				smallestDistance = distance;
+				nearest = i;
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Helper method to return the alpha, red, green and blue components of the specified color, premultiplied by alpha
+	 */
+	private static int[] premultiply(int argb) {
+		int alpha = argb >>> 24;
+		return new int[] {alpha, ((argb >> 16) & 0xFF) * alpha / 255, ((argb >> 8) & 0xFF) * alpha / 255, (argb & 0xFF) * alpha / 255};
+	}
+
+	/**
+	 * Helper method to return the color at the specified step from one color to another, interpolating premultiplied components
+	 */
+	private static int blend(int from, int to, int level, int levels) {
+		int[] a = premultiply(from);
+		int[] b = premultiply(to);
+		int[] mixed = new int[4];
+		for (int c = 0; c < 4; c++) {
+			mixed[c] = (a[c] * (levels - level) + b[c] * level + levels / 2) / levels;
+		}
+		int alpha = mixed[0];
+		if (alpha == 0) {
+			return 0;
+		}
+		int argb = alpha << 24;
+		for (int c = 1; c < 4; c++) {
+			argb |= Math.min(255, (mixed[c] * 255 + alpha / 2) / alpha) << (8 * (3 - c));
+		}
+		return argb;
+	}
+
+}
@@ -16,10 +16,13 @@
 package org.sift.tagcloud.impl.image.postscript;
 
 import java.awt.Color;
+import java.awt.Font;
 import java.awt.geom.PathIterator;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.PrintWriter;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UnknownFormatConversionException;
 
 import org.sift.tagcloud.spi.image.ImageFileWriter;
@@ -35,6 +38,13 @@ import org.sift.tagcloud.ui.DisplayTagCloud;
  */
 public class PostscriptImageWriter <S extends DisplayTag> extends ImageFileWriter<S> {
 	
+	/** The name of the procedure that re-encodes standard fonts, and the suffix of the names of re-encoded fonts */
+	private static final String REENCODE = "reencodeLatin1";
+	private static final String LATIN1_SUFFIX = "-Latin1";
+	
+	/** Tags are written using show operators when true, and as outline paths otherwise */
+	private boolean textMode;
+	
 	/** Constructor for this class*/
 	public PostscriptImageWriter() {
 		super(ImageFileWriter.POST_SCRIPT);
@@ -52,9 +62,19 @@ public class PostscriptImageWriter <S extends DisplayTag> extends ImageFileWrite
 			out.println("%!PS-Adobe-2.0");
 			out.println("%%%BoundingBox: 0 0 "+(int)displayTagCloud.getImageBounds().getWidth()+" "+(int)displayTagCloud.getImageBounds().getHeight());
 			out.println("%%EndComments");
+			Set<String> latin1Fonts = new HashSet<String>();
+			if (this.isTextMode()) {
+				// defines a font with the glyphs of a standard font and the Latin-1 encoding, so that text is shown in the same encoding as it is written
+				out.println("/" + REENCODE + " { exch findfont dup length dict begin { 1 index /FID ne { def } { pop pop } ifelse } forall "
+						+ "/Encoding ISOLatin1Encoding def currentdict end definefont pop } bind def");
+			}
 			
 			for(DisplayTag tag : displayTagCloud.getTagsList()) {
 			
+				if (this.isTextMode() && tag.getFont() != null && tag.getTextOrigin() != null) {
+					this.writeText(out, tag, displayTagCloud.getImageBounds().getHeight(), latin1Fonts);
+					continue;
+				}
 				out.print(""+ tag.getLineHeight() + " setlinewidth");			
 				out.print(" newpath");
 				
@@ -146,4 +166,86 @@ public class PostscriptImageWriter <S extends DisplayTag> extends ImageFileWrite
 		}
 			
 	}
+
+	/**
+	 * Helper method to write the specified tag as text drawn by the show operator, at the text origin and with the rotation and font of the tag. The text
+	 * outline is stroked using the charpath operator. The Latin-1 encoded version of the font is defined when it is first used
+	 */
+	private void writeText(PrintWriter out, DisplayTag tag, double imageHeight, Set<String> latin1Fonts) {
+		String fontName = toPostscriptFontName(tag.getFont());
+		if (latin1Fonts.add(fontName)) {
+			out.print(" /" + fontName + " /" + fontName + LATIN1_SUFFIX + " " + REENCODE);
+		}
+		out.print(" gsave ");
+		out.print(tag.getTextOrigin().getX());
+		out.print(' ');
+		out.print(imageHeight - tag.getTextOrigin().getY());
+		out.print(" translate");
+		if (tag.isRotated()) {
+			out.print(" 90 rotate");
+		}
+		out.print(" /" + fontName + LATIN1_SUFFIX + " findfont " + tag.getFont().getSize() + " scalefont setfont");
+		StringBuilder text = new StringBuilder("(");
+		for (int i = 0; i < tag.getDisplayText().length(); i++) {
+			char ch = tag.getDisplayText().charAt(i);
+			if (ch == '(' || ch == ')' || ch == '\\') {
+				text.append('\\').append(ch);
+			} else if (ch < 32 || ch > 126) { // non printable and non ASCII chars are written as 3 digit octal escapes of their Latin-1 codes
+				text.append(String.format("\\%03o", (int)(ch > 255 ? '?' : ch)));
+			} else {
+				text.append(ch);
+			}
+		}
+		text.append(')');
+		Color c = tag.getFill();
+		if (c != null) {
+			out.print(" 0 0 moveto " + (c.getRed()/255.0) + ' ' + (c.getGreen()/255.0) + ' ' + (c.getBlue()/255.0) + " setrgbcolor " + text + " show");
+		}
+		c = tag.getStroke();
+		if (c != null) {
+			out.print(" " + tag.getLineHeight() + " setlinewidth 0 0 moveto " + text + " false charpath " + (c.getRed()/255.0) + ' ' + (c.getGreen()/255.0)
+					+ ' ' + (c.getBlue()/255.0) + " setrgbcolor stroke");
+		}
+		out.print(" grestore");
+	}
+
+	/**
+	 * Helper method to return the name of the standard Postscript font closest to the specified Font
+	 */
+	private static String toPostscriptFontName(Font font) {
+		String family = font.getName();
+		String name;
+		String italic = "Oblique";
+		if (family.equalsIgnoreCase(Font.SERIF)) {
+			name = "Times";
+			italic = "Italic";
+		} else if (family.equalsIgnoreCase(Font.SANS_SERIF) || family.equalsIgnoreCase(Font.DIALOG)) {
+			name = "Helvetica";
+		} else if (family.equalsIgnoreCase(Font.MONOSPACED) || family.equalsIgnoreCase(Font.DIALOG_INPUT)) {
+			name = "Courier";
+		} else {
+			name = family.replaceAll("[^A-Za-z0-9]", "");
+		}
+		if (font.isBold()) {
+			return name + "-Bold" + (font.isItalic() ? italic : "");
+		}
+		if (font.isItalic()) {
+			return name + "-" + italic;
+		}
+		return name.equals("Times") ? "Times-Roman" : name;
+	}
+
+	/** Start Getter/Setter methods */
+	public boolean isTextMode() {
+		return this.textMode;
+	}
+	/**
+	 * Sets the text mode, where each tag is drawn as text using the show operator, with the position, rotation and font of the tag, instead of as the
+	 * outline of the tag's text. Text mode output is much smaller, but uses standard Postscript fonts that may differ slightly from the laid out outlines
+	 * @param textMode true for show operators, false for outline paths
+	 */
+	public void setTextMode(boolean textMode) {
+		this.textMode = textMode;
+	}
+	/** End Getter/Setter methods */
 }
@@ -16,14 +16,15 @@
 package org.sift.tagcloud.impl.image.svg;
 
 import java.awt.Color;
-import java.awt.geom.PathIterator;
+import java.awt.Font;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.util.UnknownFormatConversionException;
-
-import javax.xml.XMLConstants;
-import javax.xml.stream.XMLOutputFactory;
-import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 import org.sift.tagcloud.spi.image.ImageFileWriter;
 import org.sift.tagcloud.ui.DisplayTag;
@@ -38,100 +39,166 @@ import org.sift.tagcloud.ui.DisplayTagCloud;
  */
 public class SVGImageWriter<S extends DisplayTag> extends ImageFileWriter<S> {
 
+	/** Default number of decimal places of coordinates */
+	private static final int PRECISION = 2;
+
+	/** The SVG and XLink namespaces */
+	private static final String SVG = "http://www.w3.org/2000/svg";
+	private static final String XLINK = "http://www.w3.org/1999/xlink";
+
+	/** The number of decimal places of coordinates */
+	private int precision = PRECISION;
+
+	/** Tags are written as text elements when true, and as outline paths otherwise */
+	private boolean textMode;
+
 	/** Constructor for this class*/
 	public SVGImageWriter() {
 		super(ImageFileWriter.SVG);
 	}
 
 	/**
-	 * Writes the specified DisplayCloud as a SVG image to the specified file location
+	 * Writes the specified DisplayCloud as a SVG image to the specified file location. Path data of tags is written directly to the buffered file
+	 * stream by a {@link SVGPathEncoder}
 	 * @see org.sift.tagcloud.spi.image.ImageFileWriter#writeImageContents(java.io.File, org.sift.tagcloud.ui.DisplayTagCloud)
 	 */
 	protected void writeImageContents(File file, DisplayTagCloud<S> displayTagCloud) throws RuntimeException {	
-		
-		final String SVG="http://www.w3.org/2000/svg";
-		final String XLINK="http://www.w3.org/1999/xlink";
-		XMLOutputFactory xmlfactory= XMLOutputFactory.newInstance();
-		FileOutputStream fout;
+		Writer w = null;
 		try {
-			fout = new FileOutputStream(file);
-			XMLStreamWriter w= xmlfactory.createXMLStreamWriter( fout,"UTF-8");
-			w.writeStartDocument("UTF-8","1.0");
-			w.writeStartElement("svg","svg",SVG);
-			w.writeAttribute("xmlns", XMLConstants.XML_NS_URI, "svg", SVG);
-			w.writeAttribute("xmlns", XMLConstants.XML_NS_URI, "xlink", XLINK);
-			w.writeAttribute("width",String.valueOf(displayTagCloud.getImageBounds().getWidth()));
-			w.writeAttribute("height",String.valueOf(displayTagCloud.getImageBounds().getHeight()));
-			w.writeStartElement("svg","title",SVG);
-			w.writeCharacters("Tag Cloud for : " + displayTagCloud.getSubject());
-			w.writeEndElement();
-			
-			for(DisplayTag tag : displayTagCloud.getTagsList()) {
-				
-				if(tag.getTagURL() != null) {
-					w.writeStartElement("svg","a",SVG);
-					w.writeAttribute("xlink",XLINK,"href",tag.getTagURL().toExternalForm());
-				}		
-				w.writeEmptyElement("svg","path",SVG);				
-				if(tag.getTitle()!=null) {
-					w.writeAttribute("title", tag.getTitle());
-				}
-			
-				String style="";
-				Color c = tag.getFill();
-				style+="fill:"+(c==null?"none":toRGB(c))+";";
-				c = tag.getStroke();
-				style+="stroke:"+ (c==null ? "none" : toRGB(c)) + ";";
-				style+="stroke-width:"+ tag.getLineHeight() + ";";
-				w.writeAttribute("style", style);
-	
-				StringBuilder path=new StringBuilder();
-				double tab[] = new double[6];
-				PathIterator pathiterator = tag.getShape().getPathIterator(null);
-				while(!pathiterator.isDone()) {
-					int currSegmentType= pathiterator.currentSegment(tab);
-					switch(currSegmentType) {
-						case PathIterator.SEG_MOVETO:
-							path.append( "M " + (tab[0]) + " " + (tab[1]) + " ");
-							break;
-						case PathIterator.SEG_LINETO:
-							path.append( "L " + (tab[0]) + " " + (tab[1]) + " ");
-							break;
-						case PathIterator.SEG_CLOSE:
-							path.append( "Z ");
-							break;
-						case PathIterator.SEG_QUADTO:
-							path.append( "Q " + (tab[0]) + " " + (tab[1]));
-							path.append( " "  + (tab[2]) + " " + (tab[3]));
-							path.append( " ");
-							break;
-						case PathIterator.SEG_CUBICTO:
-							path.append( "C " + (tab[0]) + " " + (tab[1]));
-							path.append( " "  + (tab[2]) + " " + (tab[3]));
-							path.append( " "  + (tab[4]) + " " + (tab[5]));
-							path.append( " ");
-							break;
-						default:
-							throw new UnknownFormatConversionException("Error formatting SVG ouput. Cannot handle : " + currSegmentType);
-						}
-					pathiterator.next();
-				}
-				w.writeAttribute("d", path.toString());					
-				if(tag.getTagURL()!=null) {
-					w.writeEndElement();
-				}
-			}	
-			w.writeEndDocument();
+			w = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+			this.writeSVG(w, displayTagCloud);
 			w.flush();
-			w.close();
-			fout.flush();
-			fout.close();
 		} catch (Exception e) {
 			throw new RuntimeException("Error writing output file for display cloud : " + displayTagCloud.getSubject() + " to file : " + file.getAbsolutePath(),e);
-		}		
-		
+		} finally {
+			if (w != null) {
+				try {
+					w.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the specified DisplayCloud as a SVG document to the specified Writer
+	 * @param w the Writer for the SVG document
+	 * @param displayTagCloud the DisplayTagCloud to write
+	 * @throws IOException in case of errors writing the SVG document
+	 */
+	public void writeSVG(Writer w, DisplayTagCloud<S> displayTagCloud) throws IOException {
+		SVGPathEncoder pathEncoder = new SVGPathEncoder(this.getPrecision());
+		w.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+		w.write("<svg:svg xmlns:svg=\"" + SVG + "\" xmlns:xlink=\"" + XLINK + "\"");
+		w.write(" width=\"" + displayTagCloud.getImageBounds().getWidth() + "\" height=\"" + displayTagCloud.getImageBounds().getHeight() + "\">");
+		w.write("<svg:title>");
+		writeEscaped(w, "Tag Cloud for : " + displayTagCloud.getSubject());
+		w.write("</svg:title>");
+
+		for(DisplayTag tag : displayTagCloud.getTagsList()) {
+			if(tag.getTagURL() != null) {
+				w.write("<svg:a xlink:href=\"");
+				writeEscaped(w, tag.getTagURL().toExternalForm());
+				w.write("\">");
+			}
+			boolean text = this.isTextMode() && tag.getFont() != null && tag.getTextOrigin() != null;
+			w.write(text ? "<svg:text" : "<svg:path");
+			if(tag.getTitle()!=null) {
+				w.write(" title=\"");
+				writeEscaped(w, tag.getTitle());
+				w.write('"');
+			}
+			if (text) {
+				String x = this.toDecimal(tag.getTextOrigin().getX());
+				String y = this.toDecimal(tag.getTextOrigin().getY());
+				w.write(" x=\"" + x + "\" y=\"" + y + "\"");
+				if (tag.isRotated()) {
+					w.write(" transform=\"rotate(-90 " + x + " " + y + ")\"");
+				}
+			}
+			w.write(" style=\"");
+			if (text) {
+				w.write("font-family:");
+				writeEscaped(w, toCSSFontFamily(tag.getFont().getName()));
+				w.write(tag.getFont().isBold() ? ";font-weight:bold" : "");
+				w.write(tag.getFont().isItalic() ? ";font-style:italic" : "");
+				w.write(";font-size:" + tag.getFont().getSize() + "px;");
+			}
+			w.write("fill:");
+			Color c = tag.getFill();
+			w.write(c == null ? "none" : toRGB(c));
+			w.write(";stroke:");
+			c = tag.getStroke();
+			w.write(c == null ? "none" : toRGB(c));
+			w.write(";stroke-width:");
+			w.write(String.valueOf(tag.getLineHeight()));
+			if (text) {
+				w.write(";\">");
+				writeEscaped(w, tag.getDisplayText());
+				w.write("</svg:text>");
+			} else {
+				w.write(";\" d=\"");
+				pathEncoder.encode(tag.getShape(), w);
+				w.write("\"/>");
+			}
+			if(tag.getTagURL()!=null) {
+				w.write("</svg:a>");
+			}
+		}
+		w.write("</svg:svg>");
+	}
+
+	/**
+	 * Helper method to return the CSS font family list for the specified Java font family, mapping Java logical fonts to CSS generic families
+	 */
+	private static String toCSSFontFamily(String family) {
+		if (family.equalsIgnoreCase(Font.SERIF)) {
+			return "serif";
+		}
+		if (family.equalsIgnoreCase(Font.SANS_SERIF) || family.equalsIgnoreCase(Font.DIALOG)) {
+			return "sans-serif";
+		}
+		if (family.equalsIgnoreCase(Font.MONOSPACED) || family.equalsIgnoreCase(Font.DIALOG_INPUT)) {
+			return "monospace";
+		}
+		return "'" + family.replace("'", "") + "',sans-serif";
 	}
-	
+
+	/**
+	 * Helper method to format the specified coordinate to the configured number of decimal places at most
+	 */
+	private String toDecimal(double value) {
+		BigDecimal rounded = BigDecimal.valueOf(value).setScale(this.getPrecision(), RoundingMode.HALF_UP);
+		// zero is checked separately, as stripping the trailing zeros of a zero value does not change its scale on older JDKs
+		return rounded.signum() == 0 ? "0" : rounded.stripTrailingZeros().toPlainString();
+	}
+
+	/**
+	 * Helper method to write the specified text, escaping characters that are not allowed in XML character data and attribute values
+	 */
+	private static void writeEscaped(Writer w, String text) throws IOException {
+		for (int i = 0; i < text.length(); i++) {
+			char ch = text.charAt(i);
+			switch (ch) {
+				case '<':
+					w.write("&lt;");
+					break;
+				case '>':
+					w.write("&gt;");
+					break;
+				case '&':
+					w.write("&amp;");
+					break;
+				case '"':
+					w.write("&quot;");
+					break;
+				default:
+					w.write(ch);
+			}
+		}
+	}
+
 	/**
 	 * Helper method to get RGB values for a Color
 	 * @param c the Color object
@@ -140,5 +207,33 @@ public class SVGImageWriter<S extends DisplayTag> extends ImageFileWriter<S> {
 	private String toRGB(Color c) {
 		return "rgb("+c.getRed()+","+c.getGreen()+","+c.getBlue()+")";
 	}
-	
+
+	/** Start Getter/Setter methods */
+	public int getPrecision() {
+		return this.precision;
+	}
+	public boolean isTextMode() {
+		return this.textMode;
+	}
+	/**
+	 * Sets the text mode, where each tag is written as a text element having the position, rotation and font of the tag, instead of the outline of the
+	 * tag's text. Text mode output is much smaller, but renders with the fonts of the viewer and so may differ slightly from the laid out outlines
+	 * @param textMode true for text elements, false for outline paths
+	 */
+	public void setTextMode(boolean textMode) {
+		this.textMode = textMode;
+	}
+	/**
+	 * Sets the number of decimal places of path coordinates, and of text positions in text mode
+	 * @param precision the number of decimal places, from 0 to 6
+	 * @throws IllegalArgumentException if the precision is out of range
+	 */
+	public void setPrecision(int precision) {
+		if (precision < 0 || precision > SVGPathEncoder.MAX_PRECISION) {
+			throw new IllegalArgumentException("Precision must be between 0 and " + SVGPathEncoder.MAX_PRECISION + " : " + precision);
+		}
+		this.precision = precision;
+	}
+	/** End Getter/Setter methods */
+
 }
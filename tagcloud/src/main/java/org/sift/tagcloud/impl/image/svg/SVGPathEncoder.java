@@ -0,0 +1,207 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.tagcloud.impl.image.svg;
+
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.UnknownFormatConversionException;
+
+/**
+ * The <code>SVGPathEncoder</code> writes the outline of a {@link Shape} as SVG path data i.e. the value of the "d" attribute of a path element. Coordinates
+ * are rounded to a fixed number of decimal places and all commands after the first are relative to the current point, which keeps numbers short. Rounding
+ * is done on absolute coordinates before taking differences, so errors do not accumulate along a path. Numbers are formatted into a reusable buffer and
+ * written directly to the Writer. This class is not thread safe.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class SVGPathEncoder {
+
+	/** The max number of decimal places */
+	static final int MAX_PRECISION = 6;
+
+	/** The number of decimal places and the corresponding scale */
+	private int precision;
+	private double scale;
+
+	/** Path segment coordinates */
+	private double[] coords = new double[6];
+
+	/** Buffer for formatting numbers, large enough for any long with a sign and a decimal point */
+	private char[] digits = new char[21];
+
+	/** The current point and the start of the current sub path, in units of the rounding precision */
+	private long currentX;
+	private long currentY;
+	private long startX;
+	private long startY;
+
+	/** The last command written, so that repeated commands may be omitted */
+	private char lastCommand;
+
+	/**
+	 * Constructor for this class
+	 * @param precision the number of decimal places of coordinates, from 0 to 6
+	 */
+	public SVGPathEncoder(int precision) {
+		if (precision < 0 || precision > MAX_PRECISION) {
+			throw new IllegalArgumentException("Precision must be between 0 and " + MAX_PRECISION + " : " + precision);
+		}
+		this.precision = precision;
+		this.scale = Math.pow(10, precision);
+	}
+
+	/**
+	 * Writes the path data for the outline of the specified Shape to the specified Writer
+	 * @param shape the Shape to encode
+	 * @param writer the Writer for the path data
+	 * @throws IOException in case of errors writing the path data
+	 */
+	public void encode(Shape shape, Writer writer) throws IOException {
+		this.currentX = 0;
+		this.currentY = 0;
+		this.startX = 0;
+		this.startY = 0;
+		this.lastCommand = 0;
+		boolean first = true;
+		PathIterator pathIterator = shape.getPathIterator(null);
+		while (!pathIterator.isDone()) {
+			int segmentType = pathIterator.currentSegment(this.coords);
+			switch (segmentType) {
+				case PathIterator.SEG_MOVETO:
+					if (first) {
+						// the first move is absolute, as there is no current point
+						writer.write('M');
+						long x = Math.round(this.coords[0] * this.scale);
+						long y = Math.round(this.coords[1] * this.scale);
+						this.writeNumber(writer, x, false);
+						this.writeNumber(writer, y, true);
+						this.currentX = x;
+						this.currentY = y;
+						this.lastCommand = 'M';
+					} else {
+						this.writePoint(writer, 0, !this.writeCommand(writer, 'm'));
+						// coordinates that follow a relative move are relative line segments
+						this.lastCommand = 'l';
+					}
+					this.startX = this.currentX;
+					this.startY = this.currentY;
+					break;
+				case PathIterator.SEG_LINETO:
+					this.writePoint(writer, 0, !this.writeCommand(writer, 'l'));
+					break;
+				case PathIterator.SEG_QUADTO:
+					this.writeControlPoint(writer, 0, !this.writeCommand(writer, 'q'));
+					this.writePoint(writer, 2, true);
+					break;
+				case PathIterator.SEG_CUBICTO:
+					this.writeControlPoint(writer, 0, !this.writeCommand(writer, 'c'));
+					this.writeControlPoint(writer, 2, true);
+					this.writePoint(writer, 4, true);
+					break;
+				case PathIterator.SEG_CLOSE:
+					this.writeCommand(writer, 'z');
+					this.currentX = this.startX;
+					this.currentY = this.startY;
+					break;
+				default:
+					throw new UnknownFormatConversionException("Error formatting SVG ouput. Cannot handle : " + segmentType);
+			}
+			first = false;
+			pathIterator.next();
+		}
+	}
+
+	/**
+	 * Helper method to write a command, unless it repeats the last command. Returns true if the command was written
+	 */
+	private boolean writeCommand(Writer writer, char command) throws IOException {
+		if (command == this.lastCommand && command != 'z') {
+			return false;
+		}
+		writer.write(command);
+		this.lastCommand = command;
+		return true;
+	}
+
+	/**
+	 * Helper method to write the point at the specified index of the segment coordinates, relative to the current point, and make it the current point
+	 */
+	private void writePoint(Writer writer, int index, boolean separate) throws IOException {
+		long x = Math.round(this.coords[index] * this.scale);
+		long y = Math.round(this.coords[index + 1] * this.scale);
+		this.writeNumber(writer, x - this.currentX, separate);
+		this.writeNumber(writer, y - this.currentY, true);
+		this.currentX = x;
+		this.currentY = y;
+	}
+
+	/**
+	 * Helper method to write the control point at the specified index of the segment coordinates, relative to the current point
+	 */
+	private void writeControlPoint(Writer writer, int index, boolean separate) throws IOException {
+		this.writeNumber(writer, Math.round(this.coords[index] * this.scale) - this.currentX, separate);
+		this.writeNumber(writer, Math.round(this.coords[index + 1] * this.scale) - this.currentY, true);
+	}
+
+	/**
+	 * Helper method to write the specified number of units of the rounding precision as a decimal number, without trailing zeros of the fraction or a
+	 * leading zero before it. A separating space is written before the number if required, which is not the case for negative numbers as the minus sign
+	 * separates numbers
+	 */
+	private void writeNumber(Writer writer, long units, boolean separate) throws IOException {
+		if (separate && units >= 0) {
+			writer.write(' ');
+		}
+		boolean negative = units < 0;
+		long value = negative ? -units : units;
+		int end = this.digits.length;
+		int position = end;
+		int fractionDigits = this.precision;
+		// drop trailing zeros of the fraction
+		while (fractionDigits > 0 && value % 10 == 0) {
+			value /= 10;
+			fractionDigits--;
+		}
+		for (int i = 0; i < fractionDigits; i++) {
+			this.digits[--position] = (char)('0' + value % 10);
+			value /= 10;
+		}
+		if (fractionDigits > 0) {
+			this.digits[--position] = '.';
+		}
+		while (value > 0) {
+			this.digits[--position] = (char)('0' + value % 10);
+			value /= 10;
+		}
+		if (position == end) {
+			this.digits[--position] = '0';
+		}
+		if (negative) {
+			this.digits[--position] = '-';
+		}
+		writer.write(this.digits, position, end - position);
+	}
+
+	/** Start Getter methods */
+	public int getPrecision() {
+		return this.precision;
+	}
+	/** End Getter methods */
+
+}
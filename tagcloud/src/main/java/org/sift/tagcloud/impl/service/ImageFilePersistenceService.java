@@ -15,7 +15,15 @@
  */
 package org.sift.tagcloud.impl.service;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import org.sift.tagcloud.Tag;
 import org.sift.tagcloud.TagCloud;
@@ -24,6 +32,7 @@ import org.sift.tagcloud.spi.image.ImageFileWriter;
 import org.sift.tagcloud.spi.service.PersistenceService;
 import org.sift.tagcloud.ui.DisplayTag;
 import org.sift.tagcloud.ui.DisplayTagCloud;
+import org.sift.tagcloud.ui.LayoutSnapshot;
 
 /**
  * The <code>FilePersistenceService</code> is an implementation of {@link PersistenceService} that writes the tag cloud as an image of suitable type
@@ -33,6 +42,9 @@ import org.sift.tagcloud.ui.DisplayTagCloud;
  * @version 1.0, 25 Jan 2013
  */
 public class ImageFilePersistenceService<T extends Tag, S extends TagCloud<T>> implements PersistenceService<T,S> {
+
+	/** The file extension of layout snapshots*/
+	private static final String LAYOUT_SNAPSHOT_FILE_TYPE = "layout";
 	
 	/** The image writer implementation, initialized to the default implementation */
 	private ImageFileWriter<DisplayTag> imageWriter = ImageWriterFactory.getDefaultImageFileWriter();
@@ -40,6 +52,9 @@ public class ImageFilePersistenceService<T extends Tag, S extends TagCloud<T>> i
 	/** The absolute directory path where tag clouds will be stored*/
 	private String tagCloudsDirectory;
 
+	/** The absolute directory path where layout snapshots are stored. Tag clouds are always laid out when null */
+	private String layoutSnapshotsDirectory;
+
 	/**
 	 * Interface method implementation. Persists the specified TagCloud as an image file on the file system. Uses the {@link TagCloud#getSubject()} as the file name
 	 * @see org.sift.tagcloud.spi.service.PersistenceService#persistTagCloud(org.sift.tagcloud.TagCloud)
@@ -53,8 +68,18 @@ public class ImageFilePersistenceService<T extends Tag, S extends TagCloud<T>> i
 			throw new RuntimeException("This service supports persisting only DisplayTagCloud instances. Specified TagCloud (Subject : " + tagCloud.getSubject() + ") is of type : " + tagCloud.getClass().getName());
 		}
 		
-		// lay out the tag cloud
-		tagCloud.layoutTagCloud();
+		// lay out the tag cloud, unless the snapshot of an earlier layout applies to it
+		if (this.getLayoutSnapshotsDirectory() == null) {
+			tagCloud.layoutTagCloud();
+		} else {
+			DisplayTagCloud<DisplayTag> displayTagCloud = (DisplayTagCloud<DisplayTag>)tagCloud;
+			File snapshotFile = new File(this.getLayoutSnapshotsDirectory(), tagCloud.getSubject() + ImageFileWriter.FILE_EXTENSION_SEP + LAYOUT_SNAPSHOT_FILE_TYPE);
+			LayoutSnapshot snapshot = this.readLayoutSnapshot(snapshotFile);
+			if (snapshot == null || !displayTagCloud.applyLayoutSnapshot(snapshot)) {
+				displayTagCloud.layoutTagCloud();
+				this.writeLayoutSnapshot(snapshotFile, displayTagCloud.getLayoutSnapshot());
+			}
+		}
 		
 		// write the tag cloud image 
 		try {
@@ -64,6 +89,52 @@ public class ImageFilePersistenceService<T extends Tag, S extends TagCloud<T>> i
 		}
 	}
 
+	/**
+	 * Helper method to read the layout snapshot from the specified file. Returns null if the file does not exist or does not contain a snapshot
+	 */
+	private LayoutSnapshot readLayoutSnapshot(File snapshotFile) {
+		if (!snapshotFile.exists()) {
+			return null;
+		}
+		InputStream inputStream = null;
+		try {
+			inputStream = new BufferedInputStream(new FileInputStream(snapshotFile));
+			return LayoutSnapshot.read(inputStream);
+		} catch (IOException e) {
+			return null; // the tag cloud is laid out again and the snapshot overwritten
+		} finally {
+			this.close(inputStream);
+		}
+	}
+
+	/**
+	 * Helper method to write the specified layout snapshot to the specified file
+	 */
+	private void writeLayoutSnapshot(File snapshotFile, LayoutSnapshot snapshot) {
+		OutputStream outputStream = null;
+		try {
+			outputStream = new BufferedOutputStream(new FileOutputStream(snapshotFile));
+			snapshot.write(outputStream);
+		} catch (IOException e) {
+			throw new RuntimeException("Error writing layout snapshot for tag cloud with subject : " + snapshot.getSubject() + " to file : " + snapshotFile.getAbsolutePath(), e);
+		} finally {
+			this.close(outputStream);
+		}
+	}
+
+	/**
+	 * Helper method to close the specified stream, ignoring errors
+	 */
+	private void close(Closeable closeable) {
+		if (closeable != null) {
+			try {
+				closeable.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
 	/**
 	 * Interface method implementation. WARNING : Not implemented and throws an {@link UnsupportedOperationException} to the effect
 	 * @see org.sift.tagcloud.spi.service.PersistenceService#loadTagCloud(org.sift.tagcloud.TagCloud)
@@ -85,11 +156,33 @@ public class ImageFilePersistenceService<T extends Tag, S extends TagCloud<T>> i
 	public void setFileType(String fileType) throws RuntimeException {
 		this.imageWriter = ImageWriterFactory.getImageFileWriter(fileType);
 	}
+	public ImageFileWriter<DisplayTag> getImageWriter() {
+		return this.imageWriter;
+	}
+	/**
+	 * Sets the image writer, for writers that need to be configured e.g. a {@link org.sift.tagcloud.impl.image.png.PNGImageWriter} that writes palette images.
+	 * Overrides the writer for any file type set earlier
+	 * @param imageWriter the ImageFileWriter for tag cloud images
+	 */
+	public void setImageWriter(ImageFileWriter<DisplayTag> imageWriter) {
+		this.imageWriter = imageWriter;
+	}
 	public String getTagCloudsDirectory() {
 		return this.tagCloudsDirectory;
 	}
 	public void setTagCloudsDirectory(String tagCloudsDirectory) {
 		this.tagCloudsDirectory = tagCloudsDirectory;
+	}
+	public String getLayoutSnapshotsDirectory() {
+		return this.layoutSnapshotsDirectory;
+	}
+	/**
+	 * Sets the directory where the layout of each tag cloud is stored. A tag cloud having the same subject, tags and layout settings as when its
+	 * snapshot was stored is not laid out again, and is drawn as per the snapshot
+	 * @param layoutSnapshotsDirectory the absolute path of the directory, null to lay out every tag cloud
+	 */
+	public void setLayoutSnapshotsDirectory(String layoutSnapshotsDirectory) {
+		this.layoutSnapshotsDirectory = layoutSnapshotsDirectory;
 	}		
 	/** End Getter/Setter methods */
 
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.tagcloud.impl.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.sift.tagcloud.Tag;
+import org.sift.tagcloud.TagCloud;
+import org.sift.tagcloud.spi.service.PersistenceService;
+
+/**
+ * The <code>TagCloudRenderingService</code> is an implementation of {@link PersistenceService} that persists many tag clouds concurrently, using a list
+ * of delegate PersistenceService instances such as {@link ImageFilePersistenceService}. Each tag cloud is laid out and written by all the delegates, in
+ * order, on one thread of a bounded pool. The pool has a bounded queue of pending tag clouds; when it is full, the calling thread persists the tag cloud
+ * itself, which slows down callers to the rate at which tag clouds are written. Every tag cloud owns its layout state, so the result for a tag cloud does
+ * not depend on the thread that persists it or on the other tag clouds persisted at the same time.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class TagCloudRenderingService<T extends Tag, S extends TagCloud<T>> implements PersistenceService<T,S> {
+
+	/** Default values for the number of threads and the number of pending tag clouds */
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+	private static final int QUEUE_CAPACITY = 100;
+
+	/** The delegate persistence services */
+	private List<PersistenceService<T,S>> persistenceServices;
+
+	/** The number of threads that persist tag clouds */
+	private int threads = THREADS;
+
+	/** The max number of tag clouds waiting for a thread, beyond which callers persist tag clouds themselves */
+	private int queueCapacity = QUEUE_CAPACITY;
+
+	/** The thread pool, created on first use */
+	private ThreadPoolExecutor executor;
+
+	/**
+	 * Interface method implementation. Persists the specified TagCloud using all the delegate persistence services
+	 * @see org.sift.tagcloud.spi.service.PersistenceService#persistTagCloud(org.sift.tagcloud.TagCloud)
+	 */
+	public void persistTagCloud(S tagCloud) throws RuntimeException {
+		this.persistTagClouds(Collections.singletonList(tagCloud));
+	}
+
+	/**
+	 * Persists the specified TagCloud instances concurrently, using all the delegate persistence services. Returns when all of them are persisted.
+	 * @param tagClouds the TagCloud instances to be persisted
+	 * @throws RuntimeException in case of errors persisting any of the tag clouds. Other tag clouds are still persisted
+	 */
+	public void persistTagClouds(Collection<? extends S> tagClouds) throws RuntimeException {
+		List<Future<S>> futures = new ArrayList<Future<S>>(tagClouds.size());
+		for (final S tagCloud : tagClouds) {
+			futures.add(this.getExecutor().submit(new Callable<S>() {
+				public S call() throws Exception {
+					for (PersistenceService<T,S> persistenceService : persistenceServices) {
+						persistenceService.persistTagCloud(tagCloud);
+					}
+					return tagCloud;
+				}
+			}));
+		}
+		RuntimeException error = null;
+		boolean interrupted = false;
+		for (Future<S> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				interrupted = true;
+				if (error == null) {
+					error = new RuntimeException("Interrupted while persisting tag clouds!", e);
+				}
+				break;
+			} catch (ExecutionException e) {
+				if (error == null) {
+					error = e.getCause() instanceof RuntimeException ? (RuntimeException)e.getCause() : new RuntimeException("Error persisting tag cloud!", e.getCause());
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Interface method implementation. Loads the specified TagCloud using the first delegate persistence service
+	 * @see org.sift.tagcloud.spi.service.PersistenceService#loadTagCloud(org.sift.tagcloud.TagCloud)
+	 */
+	public S loadTagCloud(S tagCloud) throws RuntimeException {
+		return this.persistenceServices.get(0).loadTagCloud(tagCloud);
+	}
+
+	/**
+	 * Stops the threads of this service once the tag clouds submitted so far are persisted. Threads are created again if this service is used afterwards,
+	 * but tag clouds submitted to the stopped threads while this method is called are rejected with a {@link RejectedExecutionException}
+	 */
+	public synchronized void shutdown() {
+		if (this.executor != null) {
+			this.executor.shutdown();
+			this.executor = null;
+		}
+	}
+
+	/**
+	 * Helper method to return the thread pool, creating it if required. Threads are daemon threads and do not prevent the JVM from exiting.
+	 * Tag clouds that do not fit in the queue are persisted by the caller, unless the pool is shut down in which case they are rejected, as the
+	 * {@link ThreadPoolExecutor.CallerRunsPolicy} would silently discard them and leave their Future pending forever.
+	 */
+	private synchronized ThreadPoolExecutor getExecutor() {
+		if (this.executor == null) {
+			this.executor = new ThreadPoolExecutor(this.getThreads(), this.getThreads(), 0L, TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<Runnable>(this.getQueueCapacity()), new ThreadFactory() {
+				private int count = 0;
+				public synchronized Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "sift-tagcloud-renderer-" + (++count));
+					thread.setDaemon(true);
+					return thread;
+				}
+			}, new ThreadPoolExecutor.CallerRunsPolicy() {
+				public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+					if (executor.isShutdown()) {
+						throw new RejectedExecutionException("Tag cloud rendering service is shut down!");
+					}
+					super.rejectedExecution(runnable, executor);
+				}
+			});
+		}
+		return this.executor;
+	}
+
+	/** Start Getter/Setter methods */
+	public List<PersistenceService<T,S>> getPersistenceServices() {
+		return this.persistenceServices;
+	}
+	public void setPersistenceServices(List<PersistenceService<T,S>> persistenceServices) {
+		this.persistenceServices = persistenceServices;
+	}
+	public int getThreads() {
+		return this.threads;
+	}
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+	public int getQueueCapacity() {
+		return this.queueCapacity;
+	}
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+	/** End Getter/Setter methods */
+
+}
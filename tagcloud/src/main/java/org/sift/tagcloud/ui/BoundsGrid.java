@@ -0,0 +1,152 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.tagcloud.ui;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The <code>BoundsGrid</code> is a uniform grid spatial index of rectangular bounds, used to find collisions while laying out a tag cloud. Each bounds
+ * is added to every grid cell it overlaps, so that a collision test only looks at bounds in the cells overlapped by the tested rectangle. The grid
+ * grows in any direction to cover the bounds added to it. This class is not thread safe.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+class BoundsGrid {
+
+	/** The width and height of a grid cell */
+	private double cellSize;
+
+	/** The bounds in each cell, in row major order. Null for empty cells */
+	private List<Rectangle2D>[] cells;
+
+	/** The column and row of the first cell, and the number of columns and rows covered by the grid */
+	private int firstColumn;
+	private int firstRow;
+	private int columns;
+	private int rows;
+
+	/**
+	 * Constructor for this class
+	 * @param cellSize the width and height of a grid cell, ideally close to the size of typical bounds. Must be positive
+	 */
+	BoundsGrid(double cellSize) {
+		if (!(cellSize > 0)) {
+			throw new IllegalArgumentException("Grid cell size must be positive : " + cellSize);
+		}
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * Adds the specified bounds to this grid
+	 * @param bounds the bounds to add
+	 */
+	void add(Rectangle2D bounds) {
+		int minColumn = this.toCell(bounds.getMinX());
+		int maxColumn = this.toCell(bounds.getMaxX());
+		int minRow = this.toCell(bounds.getMinY());
+		int maxRow = this.toCell(bounds.getMaxY());
+		this.cover(minColumn, maxColumn, minRow, maxRow);
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				int index = (row - this.firstRow) * this.columns + column - this.firstColumn;
+				if (this.cells[index] == null) {
+					this.cells[index] = new ArrayList<Rectangle2D>(4);
+				}
+				this.cells[index].add(bounds);
+			}
+		}
+	}
+
+	/**
+	 * Determines if the specified rectangle intersects any of the bounds in this grid, as defined by {@link Rectangle2D#intersects(Rectangle2D)}
+	 * @param rectangle the rectangle to test
+	 * @return true if the rectangle intersects some bounds, false otherwise
+	 */
+	boolean intersects(Rectangle2D rectangle) {
+		if (this.cells == null) {
+			return false;
+		}
+		int minColumn = Math.max(this.toCell(rectangle.getMinX()), this.firstColumn);
+		int maxColumn = Math.min(this.toCell(rectangle.getMaxX()), this.firstColumn + this.columns - 1);
+		int minRow = Math.max(this.toCell(rectangle.getMinY()), this.firstRow);
+		int maxRow = Math.min(this.toCell(rectangle.getMaxY()), this.firstRow + this.rows - 1);
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				List<Rectangle2D> cellBounds = this.cells[(row - this.firstRow) * this.columns + column - this.firstColumn];
+				if (cellBounds == null) {
+					continue;
+				}
+				for (int i = 0; i < cellBounds.size(); i++) {
+					if (rectangle.intersects(cellBounds.get(i))) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Helper method to create an array of the specified number of empty cells
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<Rectangle2D>[] createCells(int size) {
+		return (List<Rectangle2D>[])new List<?>[size];
+	}
+
+	/**
+	 * Helper method to grow the grid, if required, so that it covers the specified range of cells. The grid at least doubles in size when it grows.
+	 */
+	private void cover(int minColumn, int maxColumn, int minRow, int maxRow) {
+		if (this.cells == null) {
+			this.firstColumn = minColumn;
+			this.firstRow = minRow;
+			this.columns = maxColumn - minColumn + 1;
+			this.rows = maxRow - minRow + 1;
+			this.cells = createCells(this.columns * this.rows);
+			return;
+		}
+		if (minColumn >= this.firstColumn && maxColumn < this.firstColumn + this.columns && minRow >= this.firstRow && maxRow < this.firstRow + this.rows) {
+			return;
+		}
+		int newFirstColumn = minColumn < this.firstColumn ? Math.min(minColumn, this.firstColumn - this.columns) : this.firstColumn;
+		int newLastColumn = maxColumn >= this.firstColumn + this.columns ? Math.max(maxColumn, this.firstColumn + 2 * this.columns - 1) : this.firstColumn + this.columns - 1;
+		int newFirstRow = minRow < this.firstRow ? Math.min(minRow, this.firstRow - this.rows) : this.firstRow;
+		int newLastRow = maxRow >= this.firstRow + this.rows ? Math.max(maxRow, this.firstRow + 2 * this.rows - 1) : this.firstRow + this.rows - 1;
+		int newColumns = newLastColumn - newFirstColumn + 1;
+		int newRows = newLastRow - newFirstRow + 1;
+		List<Rectangle2D>[] newCells = createCells(newColumns * newRows);
+		for (int row = 0; row < this.rows; row++) {
+			System.arraycopy(this.cells, row * this.columns, newCells, (row + this.firstRow - newFirstRow) * newColumns + this.firstColumn - newFirstColumn, this.columns);
+		}
+		this.cells = newCells;
+		this.firstColumn = newFirstColumn;
+		this.firstRow = newFirstRow;
+		this.columns = newColumns;
+		this.rows = newRows;
+	}
+
+	/**
+	 * Helper method to return the column or row of the cell containing the specified coordinate
+	 */
+	private int toCell(double coordinate) {
+		return (int)Math.floor(coordinate / this.cellSize);
+	}
+
+}
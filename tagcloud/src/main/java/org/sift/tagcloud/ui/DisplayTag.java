@@ -16,7 +16,9 @@
 package org.sift.tagcloud.ui;
 
 import java.awt.Color;
+import java.awt.Font;
 import java.awt.Shape;
+import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.LinkedList;
 import java.util.List;
@@ -68,13 +70,20 @@ public class DisplayTag extends Tag {
 	/** The font family*/
 	private String fontFamily=null;
 	
+	/** The Font, rotation and text origin i.e. the left end of the baseline. Will get set when the tag cloud is laid out*/
+	private Font font=null;
+	private boolean rotated;
+	private Point2D textOrigin=null;
+	
 	/** Constructors*/
 	public DisplayTag(String displayText) {
 		this(displayText, Tag.DEFAULT_WEIGHT);
 	}	
 	public DisplayTag(String displayText, int weight) {
 		super(displayText, weight);
-		this.setFill(DEFAULT_FILL_COLORS.get((int)(Math.random() * DEFAULT_FILL_COLORS.size())));
+		// the fill color is picked using the display text, so that a tag has the same color every time it is displayed
+		int textHash = displayText == null ? 0 : displayText.hashCode();
+		this.setFill(DEFAULT_FILL_COLORS.get((textHash & Integer.MAX_VALUE) % DEFAULT_FILL_COLORS.size()));
 		this.setStroke(this.getFill().darker());
 	}	
 	
@@ -114,6 +123,24 @@ public class DisplayTag extends Tag {
 	}
 	public void setFontFamily(String fontFamily) {
 		this.fontFamily = fontFamily;
+	}
+	public Font getFont() {
+		return this.font;
+	}
+	public void setFont(Font font) {
+		this.font = font;
+	}
+	public boolean isRotated() {
+		return this.rotated;
+	}
+	public void setRotated(boolean rotated) {
+		this.rotated = rotated;
+	}
+	public Point2D getTextOrigin() {
+		return this.textOrigin;
+	}
+	public void setTextOrigin(Point2D textOrigin) {
+		this.textOrigin = textOrigin;
 	}		
 	/** End Getter/Setter methods*/
 	
@@ -15,15 +15,17 @@
  */
 package org.sift.tagcloud.ui;
 
+import java.awt.Color;
 import java.awt.Font;
-import java.awt.Graphics2D;
 import java.awt.Shape;
 import java.awt.font.FontRenderContext;
-import java.awt.font.TextLayout;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
-import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
 
 import org.sift.tagcloud.TagCloud;
@@ -45,6 +47,28 @@ public class DisplayTagCloud<S extends DisplayTag> extends TagCloud<S> {
 	private static final int DELTA_DEGREE = 10;
 	private static final double DELTA_RADIUS = 10.0;
 	private static final int BORDER = 2;
+	private static final int MASK_PADDING = 1;
+
+	/** Comparator that orders tags by descending weight and then by display text, which is the order in which tags are laid out */
+	private static final Comparator<DisplayTag> LAYOUT_ORDER = new Comparator<DisplayTag>() {
+		public int compare(DisplayTag tag1, DisplayTag tag2) {
+			if (tag1.getWeight() != tag2.getWeight()) {
+				return tag2.getWeight() < tag1.getWeight() ? -1 : 1;
+			}
+			return tag1.getDisplayText().compareTo(tag2.getDisplayText());
+		}
+	};
+
+	/** Cosines and sines of the spiral angles, indexed by the degree value that is converted to the angle */
+	private static final double[] SPIRAL_COS = new double[720];
+	private static final double[] SPIRAL_SIN = new double[720];
+	static {
+		for (int deg = 0; deg < SPIRAL_COS.length; deg++) {
+			double rad = ((double) deg / Math.PI) * 180.0;
+			SPIRAL_COS[deg] = Math.cos(rad);
+			SPIRAL_SIN[deg] = Math.sin(rad);
+		}
+	}
 
 	/** Display elements initialized to defaults */
 	private int biggestFontSize = BIGGEST_FONT_SIZE;
@@ -54,8 +78,14 @@ public class DisplayTagCloud<S extends DisplayTag> extends TagCloud<S> {
 	private Rectangle2D imageBounds = new Rectangle2D.Double(0, 0, 0, 0);
 	private Integer preferredImageWidth;
 
-	/** Random instance */
-	private Random random = new Random();
+	/** The cache of text outlines, shared by all instances by default. Text is shaped on every layout when null */
+	private GlyphOutlineCache glyphOutlineCache = GlyphOutlineCache.getSharedInstance();
+
+	/** Collisions are tested on the rasterized tag shapes when true, and on tag bounds otherwise */
+	private boolean bitmapCollision;
+
+	/** The snapshot of the current layout, null if this tag cloud is not laid out */
+	private LayoutSnapshot layoutSnapshot;
 
 	/**
 	 * Constructor for this class.
@@ -67,7 +97,7 @@ public class DisplayTagCloud<S extends DisplayTag> extends TagCloud<S> {
 
 	/**
 	 * Interface method implementation. Lays out this tag cloud using the
-	 * contained DisplayTag instances.
+	 * contained DisplayTag instances, after ordering them by descending weight and then by display text.
 	 * 
 	 * @see org.sift.tagcloud.TagCloud#layoutTagCloud()
 	 */
@@ -76,98 +106,104 @@ public class DisplayTagCloud<S extends DisplayTag> extends TagCloud<S> {
 		if (this.getTagsList().isEmpty()) {
 			return;
 		}
+		this.sortTags();
 
 		DisplayTag first = this.getTagsList().get(0);
-		double high = -Double.MAX_VALUE;
-		double low = Double.MAX_VALUE;
-		for (DisplayTag tag : this.getTagsList()) {
-			high = Math.max(high, tag.getWeight());
-			low = Math.min(low, tag.getWeight());
-		}
+		int[] fontSizes = this.getFontSizes();
+		boolean[] rotations = new boolean[fontSizes.length];
+		int[] positionsX = new int[fontSizes.length];
+		int[] positionsY = new int[fontSizes.length];
+		GlyphOutlineCache.Outline[] outlines = new GlyphOutlineCache.Outline[fontSizes.length];
 
-		/* create small image */
-		BufferedImage img = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
-		/* get graphics from this image */
-		Graphics2D g = Graphics2D.class.cast(img.getGraphics());
-		FontRenderContext frc = g.getFontRenderContext();
+		// the layout owns its Random and FontRenderContext, so that a tag cloud is laid out the same way on any thread
+		Random random = this.createRandom();
+		// the default context of image graphics i.e. identity transform, no anti-aliasing and integer metrics, owned by this layout
+		FontRenderContext frc = new FontRenderContext(null, false, false);
 
-		for (DisplayTag tag : this.getTagsList()) {
-			String ff = tag.getFontFamily();
-			if (ff == null) {
-				ff = this.fontFamily;
+		for (int i = 0; i < fontSizes.length; i++) {
+			DisplayTag tag = this.getTagsList().get(i);
+			rotations[i] = this.isRotateTags() && random.nextBoolean();
+			outlines[i] = this.getOutline(tag.getDisplayText(), this.getFontFamily(tag), fontSizes[i], rotations[i], frc);
+			tag.setShape(outlines[i].getShape());
+			tag.setBounds((Rectangle2D)outlines[i].getBounds().clone());
+		}
+
+		// collisions are tested either against the pixels of placed tags, or against placed bounds indexed in a grid having cells of the average tag size
+		ShapeMask[] masks = null;
+		OccupancyBitmap occupancy = null;
+		BoundsGrid placedBounds = null;
+		if (this.isBitmapCollision()) {
+			masks = new ShapeMask[this.getTagsList().size()];
+			for (int i = 0; i < masks.length; i++) {
+				masks[i] = new ShapeMask(this.getTagsList().get(i).getShape(), MASK_PADDING);
 			}
-			int fontSize = (int) (((tag.getWeight() - low) / (high - low)) * (this.getBiggestFontSize() - this.getSmallestFontSize()))
-					+ this.getSmallestFontSize();
-			Font font = new Font(ff, Font.BOLD, fontSize);
-			TextLayout textLayout = new TextLayout(tag.getDisplayText(), font, frc);
-			Shape shape = textLayout.getOutline(null);
-			if (this.isRotateTags() && this.random.nextBoolean()) {
-				AffineTransform rotate = AffineTransform.getRotateInstance(-Math.PI / 2.0); // negative value to rotate anti-clockwise
-				shape = rotate.createTransformedShape(shape);
+			occupancy = new OccupancyBitmap();
+			occupancy.add(masks[0], 0, 0);
+		} else {
+			double averageSize = 0;
+			for (DisplayTag tag : this.getTagsList()) {
+				averageSize += (tag.getBounds().getWidth() + tag.getBounds().getHeight()) / 2;
 			}
-			Rectangle2D bounds = shape.getBounds2D();
-			AffineTransform centerTr = AffineTransform.getTranslateInstance(
-					-bounds.getCenterX(), -bounds.getCenterY());
-			tag.setShape(centerTr.createTransformedShape(shape));
-			tag.setBounds(tag.getShape().getBounds2D());
+			averageSize /= this.getTagsList().size();
+			placedBounds = new BoundsGrid(averageSize > 0 ? averageSize : 1);
+			placedBounds.add(first.getBounds());
 		}
-		g.dispose();
 
-		// first point
+		// the weighted center of placed tags, maintained as running sums
 		Point2D.Double center = new Point2D.Double(0, 0);
+		double weightedX = first.getBounds().getCenterX() * first.getWeight();
+		double weightedY = first.getBounds().getCenterY() * first.getWeight();
+		double totalWeight = first.getWeight();
+		Rectangle2D.Double bound1 = new Rectangle2D.Double();
 
 		for (int i = 1; i < this.getTagsList().size(); ++i) {
 			DisplayTag current = this.getTagsList().get(i);
 
 			// calculate current center
-			center.x = 0;
-			center.y = 0;
-			double totalWeight = 0.0;
-			for (int prev = 0; prev < i; ++prev) {
-				DisplayTag wPrev = this.getTagsList().get(prev);
-				center.x += (wPrev.getBounds().getCenterX()) * wPrev.getWeight();
-				center.y += (wPrev.getBounds().getCenterY()) * wPrev.getWeight();
-				totalWeight += wPrev.getWeight();
-			}
-			center.x /= (totalWeight);
-			center.y /= (totalWeight);
+			center.x = weightedX / totalWeight;
+			center.y = weightedY / totalWeight;
 
 			boolean done = false;
 			double radius = 0.5 * Math.min(first.getBounds().getWidth(),first.getBounds().getHeight());
 
 			while (!done) {
-				int startDeg = this.random.nextInt(360);
+				int startDeg = random.nextInt(360);
 				// loop over spiral
 				int prev_x = -1;
 				int prev_y = -1;
 				for (int deg = startDeg; deg < startDeg + 360; deg += DELTA_DEGREE) {
-					double rad = ((double) deg / Math.PI) * 180.0;
-					int cx = (int) (center.x + radius * Math.cos(rad));
-					int cy = (int) (center.y + radius * Math.sin(rad));
+					int cx = (int) (center.x + radius * SPIRAL_COS[deg]);
+					int cy = (int) (center.y + radius * SPIRAL_SIN[deg]);
 					if (prev_x == cx && prev_y == cy) {
 						continue;
 					}
 					prev_x = cx;
 					prev_y = cy;
 
-					AffineTransform moveTo = AffineTransform.getTranslateInstance(cx, cy);
-					Shape candidate = moveTo.createTransformedShape(current.getShape());
-					Rectangle2D bound1 = null;
-					bound1 = new Rectangle2D.Double(current.getBounds().getX()
-							+ cx, current.getBounds().getY() + cy,
-							current.getBounds().getWidth(),
-							current.getBounds().getHeight());
-					// any collision ?
-					int prev = 0;
-					for (prev = 0; prev < i; ++prev) {
-						if (bound1.intersects(this.getTagsList().get(prev).getBounds())) {
-							break;
-						}
+					boolean collides;
+					if (masks != null) {
+						collides = occupancy.intersects(masks[i], cx, cy);
+					} else {
+						bound1.setRect(current.getBounds().getX() + cx, current.getBounds().getY() + cy,
+								current.getBounds().getWidth(), current.getBounds().getHeight());
+						collides = placedBounds.intersects(bound1);
 					}
 					// no collision: we're done
-					if (prev == i) {
+					if (!collides) {
+						AffineTransform moveTo = AffineTransform.getTranslateInstance(cx, cy);
+						Shape candidate = moveTo.createTransformedShape(current.getShape());
 						current.setShape(candidate);
 						current.setBounds(candidate.getBounds2D());
+						if (masks != null) {
+							occupancy.add(masks[i], cx, cy);
+						} else {
+							placedBounds.add(current.getBounds());
+						}
+						weightedX += current.getBounds().getCenterX() * current.getWeight();
+						weightedY += current.getBounds().getCenterY() * current.getWeight();
+						totalWeight += current.getWeight();
+						positionsX[i] = cx;
+						positionsY[i] = cy;
 						done = true;
 						break;
 					}
@@ -186,12 +222,161 @@ public class DisplayTagCloud<S extends DisplayTag> extends TagCloud<S> {
 			maxx = Math.max(maxx, tag.getBounds().getMaxX());
 			maxy = Math.max(maxy, tag.getBounds().getMaxY());
 		}
-		AffineTransform shiftTr = AffineTransform.getTranslateInstance(-minx,-miny);
+		this.shiftTags(-minx, -miny);
+		this.placeText(outlines, positionsX, positionsY, -minx, -miny);
+		this.imageBounds = new Rectangle2D.Double(0, 0, maxx - minx + BORDER, maxy - miny + BORDER);
+
+		List<LayoutSnapshot.TagLayout> tagLayouts = new ArrayList<LayoutSnapshot.TagLayout>(fontSizes.length);
+		for (int i = 0; i < fontSizes.length; i++) {
+			DisplayTag tag = this.getTagsList().get(i);
+			tagLayouts.add(new LayoutSnapshot.TagLayout(tag.getDisplayText(), tag.getWeight(), this.getFontFamily(tag), fontSizes[i], rotations[i],
+					positionsX[i], positionsY[i], tag.getFill(), tag.getStroke()));
+		}
+		this.layoutSnapshot = new LayoutSnapshot(this.getSubject(), this.isRotateTags(), this.isBitmapCollision(), -minx, -miny,
+				this.imageBounds.getWidth(), this.imageBounds.getHeight(), tagLayouts);
+	}
+
+	/**
+	 * Lays out this tag cloud as recorded in the specified snapshot, without placing tags again, if the snapshot was taken of a tag cloud having the
+	 * same subject, tags, font sizes, colors and layout settings as this one. Tags are ordered as in {@link #layoutTagCloud()} before they are matched, and
+	 * the layout is then the same as that of {@link #layoutTagCloud()}
+	 * @param snapshot the LayoutSnapshot to apply
+	 * @return true if the snapshot was applied, false if it does not match this tag cloud
+	 */
+	public boolean applyLayoutSnapshot(LayoutSnapshot snapshot) {
+		this.sortTags();
+		if (!this.matches(snapshot)) {
+			return false;
+		}
+		FontRenderContext frc = new FontRenderContext(null, false, false);
+		GlyphOutlineCache.Outline[] outlines = new GlyphOutlineCache.Outline[this.getTagsList().size()];
+		int[] positionsX = new int[outlines.length];
+		int[] positionsY = new int[outlines.length];
+		for (int i = 0; i < outlines.length; i++) {
+			DisplayTag tag = this.getTagsList().get(i);
+			LayoutSnapshot.TagLayout tagLayout = snapshot.getTagLayouts().get(i);
+			outlines[i] = this.getOutline(tag.getDisplayText(), tagLayout.getFontFamily(), tagLayout.getFontSize(), tagLayout.isRotated(), frc);
+			positionsX[i] = i > 0 ? tagLayout.getX() : 0;
+			positionsY[i] = i > 0 ? tagLayout.getY() : 0;
+			Shape shape = outlines[i].getShape();
+			if (i > 0) { // the first tag stays at the origin when laid out
+				shape = AffineTransform.getTranslateInstance(tagLayout.getX(), tagLayout.getY()).createTransformedShape(shape);
+			}
+			tag.setShape(shape);
+		}
+		this.shiftTags(snapshot.getShiftX(), snapshot.getShiftY());
+		this.placeText(outlines, positionsX, positionsY, snapshot.getShiftX(), snapshot.getShiftY());
+		this.imageBounds = new Rectangle2D.Double(0, 0, snapshot.getImageWidth(), snapshot.getImageHeight());
+		this.layoutSnapshot = snapshot;
+		return true;
+	}
+
+	/**
+	 * Creates the Random that decides tag rotations and spiral start angles during layout. Seeded from the subject and from the display text and weight
+	 * of the tags in the order in which they are laid out, so that the layout of a tag cloud is repeatable for the same subject and set of tags,
+	 * irrespective of the order in which tags were added. Sub-types may override this method to vary layouts
+	 * @return the Random for laying out this tag cloud
+	 */
+	protected Random createRandom() {
+		long seed = this.getSubject() == null ? 0 : this.getSubject().hashCode();
+		for (DisplayTag tag : this.getTagsList()) {
+			seed = seed * 31 + tag.getDisplayText().hashCode();
+			seed = seed * 31 + tag.getWeight();
+		}
+		return new Random(seed);
+	}
+
+	/**
+	 * Helper method to determine if the specified snapshot was taken of a tag cloud having the same subject, tags, font sizes, colors and layout settings
+	 */
+	private boolean matches(LayoutSnapshot snapshot) {
+		if (snapshot == null || snapshot.getTagLayouts().size() != this.getTagsList().size() || snapshot.isRotateTags() != this.isRotateTags()
+				|| snapshot.isBitmapCollision() != this.isBitmapCollision() || !snapshot.getSubject().equals(this.getSubject() == null ? "" : this.getSubject())) {
+			return false;
+		}
+		int[] fontSizes = this.getFontSizes();
+		for (int i = 0; i < fontSizes.length; i++) {
+			DisplayTag tag = this.getTagsList().get(i);
+			LayoutSnapshot.TagLayout tagLayout = snapshot.getTagLayouts().get(i);
+			if (!tagLayout.getDisplayText().equals(tag.getDisplayText()) || tagLayout.getWeight() != tag.getWeight()
+					|| !tagLayout.getFontFamily().equals(this.getFontFamily(tag)) || tagLayout.getFontSize() != fontSizes[i]
+					|| !equals(tagLayout.getFill(), tag.getFill()) || !equals(tagLayout.getStroke(), tag.getStroke())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Helper method to order the tags as they are laid out i.e. by descending weight and then by display text. The sort is stable, so tags having the
+	 * same weight and text stay in the order in which they were added
+	 */
+	private void sortTags() {
+		Collections.sort(this.getTagsList(), LAYOUT_ORDER);
+	}
+
+	/**
+	 * Helper method to compare the specified colors, either of which may be null
+	 */
+	private static boolean equals(Color color1, Color color2) {
+		return color1 == null ? color2 == null : color1.equals(color2);
+	}
+
+	/**
+	 * Helper method to return the font size of each tag, scaled by weight between the smallest and biggest font sizes
+	 */
+	private int[] getFontSizes() {
+		double high = -Double.MAX_VALUE;
+		double low = Double.MAX_VALUE;
+		for (DisplayTag tag : this.getTagsList()) {
+			high = Math.max(high, tag.getWeight());
+			low = Math.min(low, tag.getWeight());
+		}
+		int[] fontSizes = new int[this.getTagsList().size()];
+		for (int i = 0; i < fontSizes.length; i++) {
+			fontSizes[i] = (int) (((this.getTagsList().get(i).getWeight() - low) / (high - low)) * (this.getBiggestFontSize() - this.getSmallestFontSize()))
+					+ this.getSmallestFontSize();
+		}
+		return fontSizes;
+	}
+
+	/**
+	 * Helper method to return the font family of the specified tag, defaulting to the font family of this tag cloud
+	 */
+	private String getFontFamily(DisplayTag tag) {
+		return tag.getFontFamily() != null ? tag.getFontFamily() : this.fontFamily;
+	}
+
+	/**
+	 * Helper method to return the outline of the specified text, centered on the origin, from the glyph outline cache if there is one
+	 */
+	private GlyphOutlineCache.Outline getOutline(String text, String fontFamily, int fontSize, boolean rotated, FontRenderContext frc) {
+		Font font = new Font(fontFamily, Font.BOLD, fontSize);
+		return this.glyphOutlineCache != null ? this.glyphOutlineCache.getOutline(text, font, rotated, frc)
+				: GlyphOutlineCache.createOutline(text, font, rotated, frc);
+	}
+
+	/**
+	 * Helper method to set the Font, rotation and text origin of all tags, from their outlines and the translations applied to them
+	 */
+	private void placeText(GlyphOutlineCache.Outline[] outlines, int[] positionsX, int[] positionsY, double shiftX, double shiftY) {
+		for (int i = 0; i < outlines.length; i++) {
+			DisplayTag tag = this.getTagsList().get(i);
+			tag.setFont(outlines[i].getFont());
+			tag.setRotated(outlines[i].isRotated());
+			tag.setTextOrigin(new Point2D.Double(outlines[i].getOriginX() + positionsX[i] + shiftX, outlines[i].getOriginY() + positionsY[i] + shiftY));
+		}
+	}
+
+	/**
+	 * Helper method to translate all tags by the specified amount, and update their bounds
+	 */
+	private void shiftTags(double shiftX, double shiftY) {
+		AffineTransform shiftTr = AffineTransform.getTranslateInstance(shiftX, shiftY);
 		for (DisplayTag tag : this.getTagsList()) {
 			tag.setShape(shiftTr.createTransformedShape(tag.getShape()));
 			tag.setBounds(tag.getShape().getBounds2D());
 		}
-		this.imageBounds = new Rectangle2D.Double(0, 0, maxx - minx + BORDER, maxy - miny + BORDER);
 	}
 
 	/** Start Getter/Setter methods */	
@@ -222,12 +407,27 @@ public class DisplayTagCloud<S extends DisplayTag> extends TagCloud<S> {
 	public Rectangle2D getImageBounds() {
 		return this.imageBounds;
 	}
+	public LayoutSnapshot getLayoutSnapshot() {
+		return this.layoutSnapshot;
+	}
 	public Integer getPreferredImageWidth() {
 		return this.preferredImageWidth;
 	}
 	public void setPreferredImageWidth(Integer preferredImageWidth) {
 		this.preferredImageWidth = preferredImageWidth;
 	}
+	public boolean isBitmapCollision() {
+		return this.bitmapCollision;
+	}
+	public void setBitmapCollision(boolean bitmapCollision) {
+		this.bitmapCollision = bitmapCollision;
+	}
+	public GlyphOutlineCache getGlyphOutlineCache() {
+		return this.glyphOutlineCache;
+	}
+	public void setGlyphOutlineCache(GlyphOutlineCache glyphOutlineCache) {
+		this.glyphOutlineCache = glyphOutlineCache;
+	}
 	/** End Getter/Setter methods */
 
 }
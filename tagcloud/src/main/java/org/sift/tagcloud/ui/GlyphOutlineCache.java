@@ -0,0 +1,255 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.tagcloud.ui;
+
+import java.awt.Font;
+import java.awt.Shape;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextLayout;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The <code>GlyphOutlineCache</code> is a bounded cache of text outlines, centered on the origin, and their bounds. Outlines are keyed by the text, the
+ * Font i.e. family, style and size, the rotation and the FontRenderContext used for shaping the text. When the cache is full, the least recently used
+ * outline is evicted. Cached Shape and bounds instances are shared and must not be modified. This class is thread safe.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class GlyphOutlineCache {
+
+	/** Default max number of cached outlines */
+	private static final int MAX_ENTRIES = 10000;
+
+	/** The cache shared by all DisplayTagCloud instances */
+	private static final GlyphOutlineCache SHARED_INSTANCE = new GlyphOutlineCache(MAX_ENTRIES);
+
+	/** The max number of cached outlines */
+	private int maxEntries;
+
+	/** The cached outlines, in access order */
+	private Map<OutlineKey, Outline> outlines = new LinkedHashMap<OutlineKey, Outline>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		protected boolean removeEldestEntry(Map.Entry<OutlineKey, Outline> eldest) {
+			return this.size() > maxEntries;
+		}
+	};
+
+	/** The number of lookups that found and did not find a cached outline */
+	private long hits;
+	private long misses;
+
+	/**
+	 * Constructor for this class
+	 * @param maxEntries the max number of cached outlines, must be positive
+	 */
+	public GlyphOutlineCache(int maxEntries) {
+		this.setMaxEntries(maxEntries);
+	}
+
+	/**
+	 * Returns the cache shared by all DisplayTagCloud instances
+	 * @return the shared GlyphOutlineCache
+	 */
+	public static GlyphOutlineCache getSharedInstance() {
+		return SHARED_INSTANCE;
+	}
+
+	/**
+	 * Returns the outline of the specified text, shaping the text if the outline is not cached
+	 * @param text the text to shape
+	 * @param font the Font for the text
+	 * @param rotated true if the outline is rotated anti-clockwise by 90 degrees
+	 * @param frc the FontRenderContext for shaping the text
+	 * @return the outline, centered on the origin
+	 */
+	public Outline getOutline(String text, Font font, boolean rotated, FontRenderContext frc) {
+		OutlineKey key = new OutlineKey(text, font, rotated, frc);
+		synchronized(this) {
+			Outline outline = this.outlines.get(key);
+			if (outline != null) {
+				this.hits++;
+				return outline;
+			}
+			this.misses++;
+		}
+		// text is shaped outside the lock, so that threads may shape different texts at the same time
+		Outline outline = createOutline(text, font, rotated, frc);
+		synchronized(this) {
+			this.outlines.put(key, outline);
+		}
+		return outline;
+	}
+
+	/**
+	 * Creates the outline of the specified text, centered on the origin
+	 * @param text the text to shape
+	 * @param font the Font for the text
+	 * @param rotated true if the outline is rotated anti-clockwise by 90 degrees
+	 * @param frc the FontRenderContext for shaping the text
+	 * @return the outline, centered on the origin
+	 */
+	public static Outline createOutline(String text, Font font, boolean rotated, FontRenderContext frc) {
+		TextLayout textLayout = new TextLayout(text, font, frc);
+		Shape shape = textLayout.getOutline(null);
+		if (rotated) {
+			AffineTransform rotate = AffineTransform.getRotateInstance(-Math.PI / 2.0); // negative value to rotate anti-clockwise
+			shape = rotate.createTransformedShape(shape);
+		}
+		Rectangle2D bounds = shape.getBounds2D();
+		AffineTransform centerTr = AffineTransform.getTranslateInstance(-bounds.getCenterX(), -bounds.getCenterY());
+		shape = centerTr.createTransformedShape(shape);
+		return new Outline(shape, shape.getBounds2D(), font, rotated, -bounds.getCenterX(), -bounds.getCenterY());
+	}
+
+	/**
+	 * Discards all cached outlines and resets the hit and miss counts
+	 */
+	public synchronized void clear() {
+		this.outlines.clear();
+		this.hits = 0;
+		this.misses = 0;
+	}
+
+	/**
+	 * Returns the number of cached outlines
+	 * @return the number of cached outlines
+	 */
+	public synchronized int size() {
+		return this.outlines.size();
+	}
+
+	/** Start Getter/Setter methods */
+	public synchronized long getHits() {
+		return this.hits;
+	}
+	public synchronized long getMisses() {
+		return this.misses;
+	}
+	public synchronized int getMaxEntries() {
+		return this.maxEntries;
+	}
+	/**
+	 * Sets the max number of cached outlines, evicting the least recently used outlines if there are more
+	 * @param maxEntries the max number of cached outlines, must be positive
+	 */
+	public synchronized void setMaxEntries(int maxEntries) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("The max number of cached outlines must be positive : " + maxEntries);
+		}
+		this.maxEntries = maxEntries;
+		while (this.outlines.size() > maxEntries) {
+			this.outlines.remove(this.outlines.keySet().iterator().next());
+		}
+	}
+	/** End Getter/Setter methods */
+
+	/**
+	 * The <code>Outline</code> is a text outline, centered on the origin, and its bounds. It also holds the Font and rotation of the text, and the position
+	 * of the text origin i.e. the left end of the baseline, so that the text may be drawn as text rather than as an outline
+	 */
+	public static final class Outline {
+
+		/** The outline Shape and its bounds */
+		private final Shape shape;
+		private final Rectangle2D bounds;
+
+		/** The Font and rotation of the text, and the position of the text origin */
+		private final Font font;
+		private final boolean rotated;
+		private final double originX;
+		private final double originY;
+
+		/**
+		 * Constructor for this class
+		 * @param shape the outline Shape
+		 * @param bounds the bounds of the Shape
+		 * @param font the Font of the text
+		 * @param rotated true if the text is rotated anti-clockwise by 90 degrees
+		 * @param originX the x position of the text origin
+		 * @param originY the y position of the text origin
+		 */
+		public Outline(Shape shape, Rectangle2D bounds, Font font, boolean rotated, double originX, double originY) {
+			this.shape = shape;
+			this.bounds = bounds;
+			this.font = font;
+			this.rotated = rotated;
+			this.originX = originX;
+			this.originY = originY;
+		}
+
+		/** Start Getter methods */
+		public Shape getShape() {
+			return this.shape;
+		}
+		public Rectangle2D getBounds() {
+			return this.bounds;
+		}
+		public Font getFont() {
+			return this.font;
+		}
+		public boolean isRotated() {
+			return this.rotated;
+		}
+		public double getOriginX() {
+			return this.originX;
+		}
+		public double getOriginY() {
+			return this.originY;
+		}
+		/** End Getter methods */
+	}
+
+	/**
+	 * The <code>OutlineKey</code> identifies a cached outline
+	 */
+	private static final class OutlineKey {
+
+		/** The shaped text, its Font, rotation and FontRenderContext */
+		private final String text;
+		private final Font font;
+		private final boolean rotated;
+		private final FontRenderContext frc;
+
+		/** The precomputed hash code */
+		private final int hash;
+
+		OutlineKey(String text, Font font, boolean rotated, FontRenderContext frc) {
+			this.text = text;
+			this.font = font;
+			this.rotated = rotated;
+			this.frc = frc;
+			this.hash = ((text.hashCode() * 31 + font.hashCode()) * 31 + frc.hashCode()) * 2 + (rotated ? 1 : 0);
+		}
+
+		public boolean equals(Object object) {
+			if (!(object instanceof OutlineKey)) {
+				return false;
+			}
+			OutlineKey other = (OutlineKey)object;
+			return this.hash == other.hash && this.rotated == other.rotated && this.text.equals(other.text) && this.font.equals(other.font)
+					&& this.frc.equals(other.frc);
+		}
+
+		public int hashCode() {
+			return this.hash;
+		}
+	}
+
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.tagcloud.ui;
+
+import java.awt.Color;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The <code>LayoutSnapshot</code> records the layout of a {@link DisplayTagCloud} i.e. the font, rotation, position and colors of every tag, along with
+ * the inputs that decided the layout. A tag cloud having the same subject, tags and layout settings may apply the snapshot instead of being laid out
+ * again. Snapshots may be written to and read from streams in a compact binary format. Instances are immutable.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class LayoutSnapshot {
+
+	/** Identifies the binary format of snapshots */
+	private static final int FORMAT_VERSION = 1;
+
+	/** The subject and layout settings of the tag cloud */
+	private final String subject;
+	private final boolean rotateTags;
+	private final boolean bitmapCollision;
+
+	/** The translation applied to all tags after placing them, and the size of the image */
+	private final double shiftX;
+	private final double shiftY;
+	private final double imageWidth;
+	private final double imageHeight;
+
+	/** The layout of each tag, in the order of the tags in the tag cloud */
+	private final List<TagLayout> tagLayouts;
+
+	/**
+	 * Constructor for this class
+	 * @param subject the subject of the tag cloud
+	 * @param rotateTags the rotateTags setting of the tag cloud
+	 * @param bitmapCollision the bitmapCollision setting of the tag cloud
+	 * @param shiftX the translation along x applied to all tags after placing them
+	 * @param shiftY the translation along y applied to all tags after placing them
+	 * @param imageWidth the width of the image
+	 * @param imageHeight the height of the image
+	 * @param tagLayouts the layout of each tag, in the order of the tags in the tag cloud
+	 */
+	public LayoutSnapshot(String subject, boolean rotateTags, boolean bitmapCollision, double shiftX, double shiftY, double imageWidth, double imageHeight,
+			List<TagLayout> tagLayouts) {
+		this.subject = subject;
+		this.rotateTags = rotateTags;
+		this.bitmapCollision = bitmapCollision;
+		this.shiftX = shiftX;
+		this.shiftY = shiftY;
+		this.imageWidth = imageWidth;
+		this.imageHeight = imageHeight;
+		this.tagLayouts = Collections.unmodifiableList(new ArrayList<TagLayout>(tagLayouts));
+	}
+
+	/**
+	 * Writes this snapshot to the specified stream. The stream is not closed
+	 * @param outputStream the stream to write to
+	 * @throws IOException in case of errors writing to the stream
+	 */
+	public void write(OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(outputStream);
+		out.writeInt(FORMAT_VERSION);
+		out.writeUTF(this.subject == null ? "" : this.subject);
+		out.writeBoolean(this.rotateTags);
+		out.writeBoolean(this.bitmapCollision);
+		out.writeDouble(this.shiftX);
+		out.writeDouble(this.shiftY);
+		out.writeDouble(this.imageWidth);
+		out.writeDouble(this.imageHeight);
+		out.writeInt(this.tagLayouts.size());
+		for (TagLayout tagLayout : this.tagLayouts) {
+			out.writeUTF(tagLayout.getDisplayText());
+			out.writeInt(tagLayout.getWeight());
+			out.writeUTF(tagLayout.getFontFamily());
+			out.writeInt(tagLayout.getFontSize());
+			out.writeBoolean(tagLayout.isRotated());
+			out.writeInt(tagLayout.getX());
+			out.writeInt(tagLayout.getY());
+			writeColor(out, tagLayout.getFill());
+			writeColor(out, tagLayout.getStroke());
+		}
+		out.flush();
+	}
+
+	/**
+	 * Reads a snapshot from the specified stream. The stream is not closed
+	 * @param inputStream the stream to read from
+	 * @return the LayoutSnapshot read from the stream
+	 * @throws IOException in case of errors reading from the stream, or if the stream does not contain a snapshot
+	 */
+	public static LayoutSnapshot read(InputStream inputStream) throws IOException {
+		DataInputStream in = new DataInputStream(inputStream);
+		int version = in.readInt();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported layout snapshot format : " + version);
+		}
+		String subject = in.readUTF();
+		boolean rotateTags = in.readBoolean();
+		boolean bitmapCollision = in.readBoolean();
+		double shiftX = in.readDouble();
+		double shiftY = in.readDouble();
+		double imageWidth = in.readDouble();
+		double imageHeight = in.readDouble();
+		int tagCount = in.readInt();
+		if (tagCount < 0) {
+			throw new IOException("Invalid number of tags in layout snapshot : " + tagCount);
+		}
+		List<TagLayout> tagLayouts = new ArrayList<TagLayout>(Math.min(tagCount, 1024));
+		for (int i = 0; i < tagCount; i++) {
+			tagLayouts.add(new TagLayout(in.readUTF(), in.readInt(), in.readUTF(), in.readInt(), in.readBoolean(), in.readInt(), in.readInt(),
+					readColor(in), readColor(in)));
+		}
+		return new LayoutSnapshot(subject, rotateTags, bitmapCollision, shiftX, shiftY, imageWidth, imageHeight, tagLayouts);
+	}
+
+	/**
+	 * Helper method to write a Color, that may be null
+	 */
+	private static void writeColor(DataOutputStream out, Color color) throws IOException {
+		out.writeBoolean(color != null);
+		if (color != null) {
+			out.writeInt(color.getRGB());
+		}
+	}
+
+	/**
+	 * Helper method to read a Color, that may be null
+	 */
+	private static Color readColor(DataInputStream in) throws IOException {
+		return in.readBoolean() ? new Color(in.readInt(), true) : null;
+	}
+
+	/** Start Getter methods */
+	public String getSubject() {
+		return this.subject;
+	}
+	public boolean isRotateTags() {
+		return this.rotateTags;
+	}
+	public boolean isBitmapCollision() {
+		return this.bitmapCollision;
+	}
+	public double getShiftX() {
+		return this.shiftX;
+	}
+	public double getShiftY() {
+		return this.shiftY;
+	}
+	public double getImageWidth() {
+		return this.imageWidth;
+	}
+	public double getImageHeight() {
+		return this.imageHeight;
+	}
+	public List<TagLayout> getTagLayouts() {
+		return this.tagLayouts;
+	}
+	/** End Getter methods */
+
+	/**
+	 * The <code>TagLayout</code> records the layout of one tag. The tag's outline, centered on the origin, is translated by the integer position and then
+	 * by the shift of the snapshot.
+	 */
+	public static final class TagLayout {
+
+		/** The tag text and weight */
+		private final String displayText;
+		private final int weight;
+
+		/** The font and rotation of the tag outline */
+		private final String fontFamily;
+		private final int fontSize;
+		private final boolean rotated;
+
+		/** The position of the tag outline's center, before the shift */
+		private final int x;
+		private final int y;
+
+		/** The fill and stroke colors, either may be null */
+		private final Color fill;
+		private final Color stroke;
+
+		/**
+		 * Constructor for this class
+		 */
+		public TagLayout(String displayText, int weight, String fontFamily, int fontSize, boolean rotated, int x, int y, Color fill, Color stroke) {
+			this.displayText = displayText;
+			this.weight = weight;
+			this.fontFamily = fontFamily;
+			this.fontSize = fontSize;
+			this.rotated = rotated;
+			this.x = x;
+			this.y = y;
+			this.fill = fill;
+			this.stroke = stroke;
+		}
+
+		/** Start Getter methods */
+		public String getDisplayText() {
+			return this.displayText;
+		}
+		public int getWeight() {
+			return this.weight;
+		}
+		public String getFontFamily() {
+			return this.fontFamily;
+		}
+		public int getFontSize() {
+			return this.fontSize;
+		}
+		public boolean isRotated() {
+			return this.rotated;
+		}
+		public int getX() {
+			return this.x;
+		}
+		public int getY() {
+			return this.y;
+		}
+		public Color getFill() {
+			return this.fill;
+		}
+		public Color getStroke() {
+			return this.stroke;
+		}
+		/** End Getter methods */
+	}
+
+}
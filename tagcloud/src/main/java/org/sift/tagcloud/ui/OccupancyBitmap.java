@@ -0,0 +1,146 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.tagcloud.ui;
+
+/**
+ * The <code>OccupancyBitmap</code> records the pixels occupied by tags placed in a tag cloud, as rows of bits packed into longs. A {@link ShapeMask}
+ * collides with the bitmap if any of its pixels is occupied, which is tested 64 pixels at a time with bitwise AND. The bitmap grows in any direction
+ * to cover the masks added to it. This class is not thread safe.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+class OccupancyBitmap {
+
+	/** The position of the top left pixel of this bitmap. The x position is a multiple of 64 */
+	private int x;
+	private int y;
+
+	/** The number of longs per row and the number of rows */
+	private int wordsPerRow;
+	private int rows;
+
+	/** The bits of all rows, one row after the other. Null until a mask is added */
+	private long[] bits;
+
+	/**
+	 * Determines if the specified mask, translated by the specified amount, overlaps any occupied pixel
+	 * @param mask the mask to test
+	 * @param translateX the translation along x
+	 * @param translateY the translation along y
+	 * @return true if the mask collides with occupied pixels, false otherwise
+	 */
+	boolean intersects(ShapeMask mask, int translateX, int translateY) {
+		if (this.bits == null) {
+			return false;
+		}
+		int top = translateY + mask.y;
+		int firstRow = Math.max(0, this.y - top);
+		int lastRow = Math.min(mask.height, this.y + this.rows - top);
+		int bitStart = translateX + mask.x - this.x;
+		// rows are tested from the middle of the mask outwards, as the middle rows of text are the most likely to collide
+		int middle = (firstRow + lastRow) >>> 1;
+		for (int i = 0; i < lastRow - firstRow; i++) {
+			int row = (i & 1) == 0 ? middle + (i >>> 1) : middle - 1 - (i >>> 1);
+			int rowOffset = (top + row - this.y) * this.wordsPerRow;
+			int maskOffset = row * mask.wordsPerRow;
+			for (int k = 0; k < mask.wordsPerRow; k++) {
+				long word = mask.bits[maskOffset + k];
+				if (word == 0) {
+					continue;
+				}
+				int start = bitStart + (k << 6);
+				int index = start >> 6;
+				int shift = start & 63;
+				if (index >= 0 && index < this.wordsPerRow && (this.bits[rowOffset + index] & (word << shift)) != 0) {
+					return true;
+				}
+				if (shift != 0 && index + 1 >= 0 && index + 1 < this.wordsPerRow && (this.bits[rowOffset + index + 1] & (word >>> (64 - shift))) != 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Marks the pixels of the specified mask, translated by the specified amount, as occupied
+	 * @param mask the mask to add
+	 * @param translateX the translation along x
+	 * @param translateY the translation along y
+	 */
+	void add(ShapeMask mask, int translateX, int translateY) {
+		int left = translateX + mask.x;
+		int top = translateY + mask.y;
+		this.cover(left, top, left + mask.wordsPerRow * 64, top + mask.height);
+		int bitStart = left - this.x;
+		for (int row = 0; row < mask.height; row++) {
+			int rowOffset = (top + row - this.y) * this.wordsPerRow;
+			int maskOffset = row * mask.wordsPerRow;
+			for (int k = 0; k < mask.wordsPerRow; k++) {
+				long word = mask.bits[maskOffset + k];
+				if (word == 0) {
+					continue;
+				}
+				int start = bitStart + (k << 6);
+				int index = start >> 6;
+				int shift = start & 63;
+				this.bits[rowOffset + index] |= word << shift;
+				if (shift != 0) {
+					this.bits[rowOffset + index + 1] |= word >>> (64 - shift);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Helper method to grow the bitmap, if required, so that it covers the specified pixel range. The bitmap at least doubles in size when it grows.
+	 */
+	private void cover(int left, int top, int right, int bottom) {
+		int newX = (left >> 6) << 6;
+		int newRight = ((right + 63) >> 6) << 6;
+		if (this.bits == null) {
+			this.x = newX;
+			this.y = top;
+			this.wordsPerRow = (newRight - newX) >> 6;
+			this.rows = bottom - top;
+			this.bits = new long[this.wordsPerRow * this.rows];
+			return;
+		}
+		int currentRight = this.x + (this.wordsPerRow << 6);
+		int currentBottom = this.y + this.rows;
+		if (newX >= this.x && newRight <= currentRight && top >= this.y && bottom <= currentBottom) {
+			return;
+		}
+		int width = this.wordsPerRow << 6;
+		newX = newX < this.x ? Math.min(newX, this.x - width) : this.x;
+		newRight = newRight > currentRight ? Math.max(newRight, currentRight + width) : currentRight;
+		int newY = top < this.y ? Math.min(top, this.y - this.rows) : this.y;
+		int newBottom = bottom > currentBottom ? Math.max(bottom, currentBottom + this.rows) : currentBottom;
+		int newWordsPerRow = (newRight - newX) >> 6;
+		int newRows = newBottom - newY;
+		long[] newBits = new long[newWordsPerRow * newRows];
+		for (int row = 0; row < this.rows; row++) {
+			System.arraycopy(this.bits, row * this.wordsPerRow, newBits, (row + this.y - newY) * newWordsPerRow + ((this.x - newX) >> 6), this.wordsPerRow);
+		}
+		this.x = newX;
+		this.y = newY;
+		this.wordsPerRow = newWordsPerRow;
+		this.rows = newRows;
+		this.bits = newBits;
+	}
+
+}
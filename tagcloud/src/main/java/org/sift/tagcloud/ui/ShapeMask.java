@@ -0,0 +1,87 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.tagcloud.ui;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+
+/**
+ * The <code>ShapeMask</code> is a rasterized {@link Shape}, held as rows of bits packed into longs. Bit j of word k in a row stands for the pixel in column
+ * 64k+j, counted from the left edge of the mask. The mask is positioned relative to the origin of the Shape's coordinate space, so that it may be tested
+ * against an {@link OccupancyBitmap} at any integer translation of the Shape. Instances are immutable.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+class ShapeMask {
+
+	/** The position of the top left pixel of this mask in the Shape's coordinate space */
+	final int x;
+	final int y;
+
+	/** The width and height of this mask in pixels */
+	final int width;
+	final int height;
+
+	/** The number of longs per row */
+	final int wordsPerRow;
+
+	/** The bits of all rows, one row after the other */
+	final long[] bits;
+
+	/**
+	 * Constructor for this class. Rasterizes the specified Shape, grown by the specified padding on all sides.
+	 * @param shape the Shape to rasterize
+	 * @param padding the number of pixels by which the Shape outline is grown, 0 for none
+	 */
+	ShapeMask(Shape shape, int padding) {
+		Rectangle bounds = shape.getBounds();
+		this.x = bounds.x - padding - 1;
+		this.y = bounds.y - padding - 1;
+		this.width = bounds.width + 2 * padding + 2;
+		this.height = bounds.height + 2 * padding + 2;
+		this.wordsPerRow = (this.width + 63) >>> 6;
+		this.bits = new long[this.wordsPerRow * this.height];
+		BufferedImage image = new BufferedImage(this.width, this.height, BufferedImage.TYPE_BYTE_BINARY);
+		Graphics2D g = image.createGraphics();
+		g.setColor(Color.WHITE);
+		g.transform(AffineTransform.getTranslateInstance(-this.x, -this.y));
+		g.fill(shape);
+		if (padding > 0) {
+			g.setStroke(new BasicStroke(2 * padding, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+			g.draw(shape);
+		}
+		g.dispose();
+		Raster raster = image.getRaster();
+		int[] pixels = new int[this.width];
+		for (int row = 0; row < this.height; row++) {
+			raster.getSamples(0, row, this.width, 1, 0, pixels);
+			int offset = row * this.wordsPerRow;
+			for (int column = 0; column < this.width; column++) {
+				if (pixels[column] != 0) {
+					this.bits[offset + (column >>> 6)] |= 1L << (column & 63);
+				}
+			}
+		}
+	}
+
+}
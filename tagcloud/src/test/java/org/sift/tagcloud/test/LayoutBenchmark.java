@@ -0,0 +1,85 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.tagcloud.test;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+
+import org.sift.tagcloud.ui.DisplayTag;
+import org.sift.tagcloud.ui.DisplayTagCloud;
+
+/**
+ * <code>LayoutBenchmark </code> compares the time taken by {@link DisplayTagCloud#layoutTagCloud()} and the area of the resulting image, when collisions
+ * are tested on tag bounds and when they are tested on rasterized tag shapes. Density is the sum of the tag bounds areas over the image area.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class LayoutBenchmark {
+
+	/** The numbers of tags in the measured tag clouds */
+	private static final int[] TAG_COUNTS = {100, 250, 500};
+
+	/** Words that tags are made of */
+	private static final String[] VOCABULARY = {
+		"food","service","restaurant","slow","staff","friendly","great","place","dinner","family","prices","reasonable","ambience","better","visit",
+		"parking","quality","taste","quick","lovely","expensive","jumbo","pretty","queue","yummy","gorgeous","typography","glyph","spiral","layout",
+	};
+
+	public LayoutBenchmark() {
+		for (int run = 0; run < 2; run++) { // the first run warms up
+			for (int tagCount : TAG_COUNTS) {
+				for (boolean bitmapCollision : new boolean[] {false, true}) {
+					DisplayTagCloud<DisplayTag> tagCloud = this.createTagCloud(tagCount);
+					tagCloud.setBitmapCollision(bitmapCollision);
+					long start = System.nanoTime();
+					tagCloud.layoutTagCloud();
+					long elapsed = System.nanoTime() - start;
+					if (run > 0) {
+						Rectangle2D imageBounds = tagCloud.getImageBounds();
+						double tagsArea = 0;
+						for (DisplayTag tag : tagCloud.getTagsList()) {
+							tagsArea += tag.getBounds().getWidth() * tag.getBounds().getHeight();
+						}
+						double imageArea = imageBounds.getWidth() * imageBounds.getHeight();
+						System.out.println(tagCount + " tags, " + (bitmapCollision ? "bitmap" : "bounds") + " : " + (elapsed / 1000000) + " ms, image "
+								+ (int)imageBounds.getWidth() + "x" + (int)imageBounds.getHeight() + ", density " + Math.round(tagsArea * 100 / imageArea) + "%");
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Helper method to create a tag cloud of the specified number of tags, sorted on descending weight
+	 */
+	private DisplayTagCloud<DisplayTag> createTagCloud(int tagCount) {
+		Random random = new Random(tagCount);
+		DisplayTagCloud<DisplayTag> tagCloud = new DisplayTagCloud<DisplayTag>("benchmark");
+		for (int i = 0; i < tagCount; i++) {
+			String text = VOCABULARY[random.nextInt(VOCABULARY.length)];
+			if (i % 3 == 0) {
+				text += " " + VOCABULARY[random.nextInt(VOCABULARY.length)];
+			}
+			tagCloud.addTag(new DisplayTag(text, tagCount - i));
+		}
+		return tagCloud;
+	}
+
+	public static void main(String[] args) {
+		new LayoutBenchmark();
+	}
+}
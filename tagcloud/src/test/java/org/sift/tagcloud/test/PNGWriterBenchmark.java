@@ -0,0 +1,147 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.tagcloud.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.sift.tagcloud.impl.image.png.IndexedPNGEncoder;
+import org.sift.tagcloud.impl.image.png.PNGImageWriter;
+import org.sift.tagcloud.ui.DisplayTag;
+import org.sift.tagcloud.ui.DisplayTagCloud;
+
+/**
+ * <code>PNGWriterBenchmark </code> compares the file size and time taken to write 25 and 200 tag clouds as ARGB PNG images and as palette PNG images of
+ * a few compression levels and filter strategies. It also compares the time taken to produce thumbnail, medium and full size images by laying out the tag
+ * cloud for each size, and by laying it out once and writing all sizes in one call. Images are written to a temporary directory that is deleted
+ * afterwards.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class PNGWriterBenchmark {
+
+	/** The numbers of tags in the measured tag clouds, and the number of times each image is written per measurement */
+	private static final int[] TAG_COUNTS = {25, 200};
+	private static final int ITERATIONS = 5;
+
+	/** The widths of thumbnail and medium size images */
+	private static final List<Integer> VARIANT_WIDTHS = Arrays.asList(200, 600);
+
+	/** Words that tags are made of */
+	private static final String[] VOCABULARY = {
+		"food","service","restaurant","slow","staff","friendly","great","place","dinner","family","prices","reasonable","ambience","better","visit",
+		"parking","quality","taste","quick","lovely","expensive","jumbo","pretty","queue","yummy","gorgeous","typography","glyph","spiral","layout",
+	};
+
+	public PNGWriterBenchmark() throws IOException {
+		File directory = File.createTempFile("sift-png", "");
+		directory.delete();
+		directory.mkdir();
+		try {
+			for (int tagCount : TAG_COUNTS) {
+				DisplayTagCloud<DisplayTag> tagCloud = this.createTagCloud(tagCount);
+				tagCloud.layoutTagCloud();
+				System.out.println(tagCount + " tags, image " + (int)tagCloud.getImageBounds().getWidth() + "x" + (int)tagCloud.getImageBounds().getHeight());
+				for (int run = 0; run < 2; run++) { // the first run warms up
+					this.measure("ARGB", tagCloud, new PNGImageWriter<DisplayTag>(), directory, run > 0);
+					for (int level : new int[] {1, 6, 9}) {
+						for (IndexedPNGEncoder.FilterStrategy filterStrategy : new IndexedPNGEncoder.FilterStrategy[] {
+								IndexedPNGEncoder.FilterStrategy.NONE, IndexedPNGEncoder.FilterStrategy.ADAPTIVE}) {
+							PNGImageWriter<DisplayTag> writer = new PNGImageWriter<DisplayTag>();
+							writer.setIndexedPalette(true);
+							writer.setCompressionLevel(level);
+							writer.setFilterStrategy(filterStrategy);
+							this.measure("palette, level " + level + ", " + filterStrategy, tagCloud, writer, directory, run > 0);
+						}
+					}
+					this.measureVariants(tagCount, directory, run > 0);
+				}
+			}
+		} finally {
+			for (File file : directory.listFiles()) {
+				file.delete();
+			}
+			directory.delete();
+		}
+	}
+
+	/**
+	 * Helper method to write the image of the specified tag cloud using the specified writer
+	 */
+	private void measure(String name, DisplayTagCloud<DisplayTag> tagCloud, PNGImageWriter<DisplayTag> writer, File directory, boolean report) {
+		File file = new File(directory, "benchmark.png");
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			writer.writeImageFile(file.getAbsolutePath(), tagCloud);
+		}
+		long elapsed = System.nanoTime() - start;
+		if (report) {
+			System.out.println("  " + name + " : " + (file.length() / 1024) + " KB, " + (elapsed / ITERATIONS / 1000000) + " ms");
+		}
+	}
+
+	/**
+	 * Helper method to lay out and write full size, thumbnail and medium size palette images of a tag cloud, once laying out the tag cloud for each size
+	 * and once laying it out for all sizes
+	 */
+	private void measureVariants(int tagCount, File directory, boolean report) {
+		File file = new File(directory, "variants.png");
+		PNGImageWriter<DisplayTag> writer = new PNGImageWriter<DisplayTag>();
+		writer.setIndexedPalette(true);
+		long start = System.nanoTime();
+		for (Integer imageWidth : Arrays.asList(null, VARIANT_WIDTHS.get(0), VARIANT_WIDTHS.get(1))) {
+			DisplayTagCloud<DisplayTag> tagCloud = this.createTagCloud(tagCount);
+			tagCloud.setPreferredImageWidth(imageWidth);
+			tagCloud.layoutTagCloud();
+			writer.writeImageFile(file.getAbsolutePath(), tagCloud);
+		}
+		long separate = System.nanoTime() - start;
+		start = System.nanoTime();
+		writer.setImageWidths(VARIANT_WIDTHS);
+		DisplayTagCloud<DisplayTag> tagCloud = this.createTagCloud(tagCount);
+		tagCloud.layoutTagCloud();
+		writer.writeImageFile(file.getAbsolutePath(), tagCloud);
+		long combined = System.nanoTime() - start;
+		if (report) {
+			System.out.println("  sizes " + VARIANT_WIDTHS + " and full : layout per size " + (separate / 1000000) + " ms, one layout " + (combined / 1000000)
+					+ " ms");
+		}
+	}
+
+	/**
+	 * Helper method to create a tag cloud of the specified number of tags, sorted on descending weight
+	 */
+	private DisplayTagCloud<DisplayTag> createTagCloud(int tagCount) {
+		Random random = new Random(tagCount);
+		DisplayTagCloud<DisplayTag> tagCloud = new DisplayTagCloud<DisplayTag>("benchmark");
+		for (int i = 0; i < tagCount; i++) {
+			String text = VOCABULARY[random.nextInt(VOCABULARY.length)];
+			if (i % 3 == 0) {
+				text += " " + VOCABULARY[random.nextInt(VOCABULARY.length)];
+			}
+			tagCloud.addTag(new DisplayTag(text, tagCount - i));
+		}
+		return tagCloud;
+	}
+
+	public static void main(String[] args) throws IOException {
+		new PNGWriterBenchmark();
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.tagcloud.test;
+
+import java.awt.geom.PathIterator;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+
+import org.sift.tagcloud.impl.image.svg.SVGPathEncoder;
+import org.sift.tagcloud.ui.DisplayTag;
+import org.sift.tagcloud.ui.DisplayTagCloud;
+
+/**
+ * <code>SVGWriterBenchmark </code> compares the size, time taken and memory allocated to write the path data of a 1000 tag cloud, using string
+ * concatenation of absolute coordinates as earlier versions of the SVG image writer did, and using {@link SVGPathEncoder}. Path data is written to a
+ * Writer that only counts characters, so that only encoding is measured. Allocation is reported where the JVM supports measuring it.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class SVGWriterBenchmark {
+
+	/** The number of tags in the tag cloud and the number of times its path data is written per measurement */
+	private static final int TAG_COUNT = 1000;
+	private static final int ITERATIONS = 20;
+
+	public SVGWriterBenchmark() throws IOException {
+		DisplayTagCloud<DisplayTag> tagCloud = new DisplayTagCloud<DisplayTag>("benchmark");
+		Random random = new Random(TAG_COUNT);
+		for (int i = 0; i < TAG_COUNT; i++) {
+			tagCloud.addTag(new DisplayTag("tag" + random.nextInt(TAG_COUNT * 10) + (i % 3 == 0 ? " phrase" : ""), TAG_COUNT - i));
+		}
+		tagCloud.layoutTagCloud();
+		for (int run = 0; run < 2; run++) { // the first run warms up
+			this.measure("concatenation", tagCloud, -1, run > 0);
+			for (int precision = 1; precision <= 3; precision++) {
+				this.measure("encoder, precision " + precision, tagCloud, precision, run > 0);
+			}
+		}
+	}
+
+	/**
+	 * Helper method to write the path data of all tags, using the encoder of the specified precision or concatenation if the precision is negative
+	 */
+	private void measure(String name, DisplayTagCloud<DisplayTag> tagCloud, int precision, boolean report) throws IOException {
+		CountingWriter writer = new CountingWriter();
+		long allocated = this.getAllocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			SVGPathEncoder encoder = precision < 0 ? null : new SVGPathEncoder(precision);
+			for (DisplayTag tag : tagCloud.getTagsList()) {
+				if (encoder == null) {
+					writer.write(this.concatenate(tag));
+				} else {
+					encoder.encode(tag.getShape(), writer);
+				}
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		allocated = this.getAllocatedBytes() - allocated;
+		if (report) {
+			System.out.println(name + " : " + (writer.count / ITERATIONS / 1024) + " KB per cloud, " + (elapsed / ITERATIONS / 1000000) + " ms per cloud"
+					+ (allocated < 0 ? "" : ", " + (allocated / ITERATIONS / 1024) + " KB allocated per cloud"));
+		}
+	}
+
+	/**
+	 * Helper method to build the path data of the specified tag as earlier versions of the SVG image writer did
+	 */
+	private String concatenate(DisplayTag tag) {
+		StringBuilder path = new StringBuilder();
+		double tab[] = new double[6];
+		PathIterator pathiterator = tag.getShape().getPathIterator(null);
+		while (!pathiterator.isDone()) {
+			switch (pathiterator.currentSegment(tab)) {
+				case PathIterator.SEG_MOVETO:
+					path.append("M " + (tab[0]) + " " + (tab[1]) + " ");
+					break;
+				case PathIterator.SEG_LINETO:
+					path.append("L " + (tab[0]) + " " + (tab[1]) + " ");
+					break;
+				case PathIterator.SEG_CLOSE:
+					path.append("Z ");
+					break;
+				case PathIterator.SEG_QUADTO:
+					path.append("Q " + (tab[0]) + " " + (tab[1]));
+					path.append(" " + (tab[2]) + " " + (tab[3]));
+					path.append(" ");
+					break;
+				case PathIterator.SEG_CUBICTO:
+					path.append("C " + (tab[0]) + " " + (tab[1]));
+					path.append(" " + (tab[2]) + " " + (tab[3]));
+					path.append(" " + (tab[4]) + " " + (tab[5]));
+					path.append(" ");
+					break;
+			}
+			pathiterator.next();
+		}
+		return path.toString();
+	}
+
+	/**
+	 * Helper method to return the bytes allocated by the current thread, or -1 if the JVM does not support measuring it
+	 */
+	private long getAllocatedBytes() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean)threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	/**
+	 * Writer that counts and discards characters
+	 */
+	private static class CountingWriter extends Writer {
+		private long count;
+		public void write(int c) {
+			this.count++;
+		}
+		public void write(char[] chars, int offset, int length) {
+			this.count += length;
+		}
+		public void write(String text) {
+			this.count += text.length();
+		}
+		public void flush() {
+		}
+		public void close() {
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		new SVGWriterBenchmark();
+	}
+}
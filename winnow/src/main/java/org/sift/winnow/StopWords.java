@@ -19,6 +19,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -26,7 +27,9 @@ import java.util.Map;
 
 /**
  * The <code>StopWords</code> is a collection of pre-determined stop words in the English and also includes the 
- * ability to dynamically add stop words, and stop words based on a group ID
+ * ability to dynamically add stop words, and stop words based on a group ID.
+ * Stop, conjunction and article words are compiled into immutable hashed matchers when first checked, and are compiled again whenever
+ * the word lists are set, or when words are added to or removed from the lists returned by the getter methods.
  * 
  * @author Regunath B
  * @version 1.0, 24 Jan 2013
@@ -84,6 +87,14 @@ public class StopWords {
 	
 	/** List of files from which group ID based stop words will be loaded */
 	private Map<String,String> groupIDBasedStopWordsFiles = new HashMap<String, String>();
+
+	/** The compiled matchers for stop words, and for conjunction and article words. Null when the word lists have to be compiled again */
+	private volatile WordMatcher stopWordMatcher;
+	private volatile WordMatcher boundaryWordMatcher;
+	
+	/** The sizes of the word lists that the matchers were compiled from, used to detect changes made to the lists */
+	private int compiledStopWordsCount;
+	private int compiledBoundaryWordsCount;
 	
 	/**
 	 * Constructor for this class
@@ -106,19 +117,40 @@ public class StopWords {
 	 * @return true if it is a stop word, false otherwise
 	 */
 	public boolean isStopWord(String word) {
-		if (this.stopWords.contains(word)) {
+		WordMatcher stopWordMatcher = this.stopWordMatcher;
+		WordMatcher boundaryWordMatcher = this.boundaryWordMatcher;
+		if (stopWordMatcher == null || boundaryWordMatcher == null || this.compiledStopWordsCount != this.stopWords.size() 
+				|| this.compiledBoundaryWordsCount != this.conjunctionWords.size() + this.articleWords.size()) {
+			List<String> boundaryWords = new ArrayList<String>(this.conjunctionWords);
+			boundaryWords.addAll(this.articleWords);
+			this.compiledStopWordsCount = this.stopWords.size();
+			this.compiledBoundaryWordsCount = boundaryWords.size();
+			stopWordMatcher = this.stopWordMatcher = new WordMatcher(this.stopWords);
+			boundaryWordMatcher = this.boundaryWordMatcher = new WordMatcher(boundaryWords);
+		}
+		if (stopWordMatcher.contains(word)) {
 			return true;
 		} 
-		// check if it is a conjunction or article word, but is at the start (or at the end) of the phrase
-		String[] words = word.split(WORD_BOUNDARY);
-		if(words.length<1) {
-			return true;
+		// check if it is a conjunction or article word, but is at the start (or at the end) of the phrase.
+		// The words are located without splitting the phrase, but are the same as the first and last elements of word.split(WORD_BOUNDARY) 
+		int length = word.length();
+		int lastEnd = length;
+		while (lastEnd > 0 && !WordTokenizer.isWordChar(word.charAt(lastEnd - 1))) {
+			lastEnd--;
 		}
-		if (this.conjunctionWords.contains(words[0]) || this.conjunctionWords.contains(words[words.length - 1]) ||
-				this.articleWords.contains(words[0]) || this.articleWords.contains(words[words.length - 1])) {
-			return true;
+		if (lastEnd == 0) {
+			// no words, unless the phrase is empty and therefore has no word boundary either
+			return length > 0 || boundaryWordMatcher.contains(word);
 		}
-		return false;
+		int lastStart = lastEnd - 1;
+		while (lastStart > 0 && WordTokenizer.isWordChar(word.charAt(lastStart - 1))) {
+			lastStart--;
+		}
+		int firstEnd = 0; // the first word is empty if the phrase starts with a word boundary
+		while (firstEnd < length && WordTokenizer.isWordChar(word.charAt(firstEnd))) {
+			firstEnd++;
+		}
+		return boundaryWordMatcher.contains(word, 0, firstEnd) || boundaryWordMatcher.contains(word, lastStart, lastEnd);
 	}
 	
 	/**
@@ -140,14 +172,20 @@ public class StopWords {
 	 * @return Array of Split string
 	 */
 	public String[] split(String input) {
-		String[] splittedText = input.split(WORD_BOUNDARY);
-		List<String> returnList = new LinkedList<String>();
-		for(String i: splittedText) {
-			if(i.trim().length()>0) {
-				returnList.add(i.trim());			
-			}
+		WordTokenizer tokenizer = new WordTokenizer();
+		String[] words = new String[tokenizer.tokenize(input)];
+		for (int i = 0; i < words.length; i++) {
+			words[i] = tokenizer.getWord(i);
 		}
-		return returnList.toArray(new String[0]);		
+		return words;
+	}
+
+	/**
+	 * Helper method to discard the compiled matchers, so that the word lists are compiled again when words are next checked
+	 */
+	private void invalidateMatchers() {
+		this.stopWordMatcher = null;
+		this.boundaryWordMatcher = null;
 	}
 
 	/** Getter/Setter methods */	
@@ -156,12 +194,14 @@ public class StopWords {
 	}
 	public void setStopWords(List<String> stopWords) {
 		this.stopWords = stopWords;
+		this.invalidateMatchers();
 	}
 	public List<String> getConjunctionWords() {
 		return this.conjunctionWords;
 	}
 	public void setConjunctionWords(List<String> conjunctionWords) {
 		this.conjunctionWords = conjunctionWords;
+		this.invalidateMatchers();
 	}
 	public List<String> getStopWordsFiles() {
 		return this.stopWordsFiles;
@@ -171,6 +211,7 @@ public class StopWords {
 	}
 	public void setArticleWords(List<String> articleWords) {
 		this.articleWords = articleWords;
+		this.invalidateMatchers();
 	}
 	public void setStopWordsFiles(List<String> stopWordsFiles) {
 		this.stopWordsFiles = stopWordsFiles;
@@ -189,6 +230,7 @@ public class StopWords {
 				throw new RuntimeException("Error while reading from filtering file",e);
 			}
 		}
+		this.invalidateMatchers();
 	}
 
 	public Map<String,String> getgroupIDBasedStopWordsFiles() {
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.winnow;
+
+import java.util.Collection;
+
+/**
+ * The <code>WordMatcher</code> is an immutable, open addressed hash set of words that may be matched against a region of a String without creating
+ * a substring. Hash codes of regions are computed in the same way as {@link String#hashCode()}, so that whole Strings are matched using their cached
+ * hash codes. Instances are safe for use by multiple threads.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+final class WordMatcher {
+
+	/** The hash table of words, sized to a power of two and at most half full */
+	private final String[] table;
+
+	/** The hash codes of words in the table */
+	private final int[] hashes;
+
+	/** Mask for indexing into the table */
+	private final int mask;
+
+	/**
+	 * Constructor for this class
+	 * @param words the words to match. Null words are ignored
+	 */
+	WordMatcher(Collection<String> words) {
+		int capacity = 4;
+		while (capacity < words.size() * 2) {
+			capacity <<= 1;
+		}
+		this.table = new String[capacity];
+		this.hashes = new int[capacity];
+		this.mask = capacity - 1;
+		for (String word : words) {
+			if (word != null) {
+				this.add(word);
+			}
+		}
+	}
+
+	/**
+	 * Determines if the specified word is one of the words matched by this WordMatcher
+	 * @param word the word to match
+	 * @return true if the word is matched, false otherwise
+	 */
+	boolean contains(String word) {
+		int hash = word.hashCode();
+		for (int index = hash & this.mask; this.table[index] != null; index = (index + 1) & this.mask) {
+			if (this.hashes[index] == hash && this.table[index].equals(word)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determines if the specified region of a String is one of the words matched by this WordMatcher
+	 * @param text the String containing the word
+	 * @param start index of the first char of the word
+	 * @param end index after the last char of the word
+	 * @return true if the word is matched, false otherwise
+	 */
+	boolean contains(String text, int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + text.charAt(i);
+		}
+		int length = end - start;
+		for (int index = hash & this.mask; this.table[index] != null; index = (index + 1) & this.mask) {
+			if (this.hashes[index] == hash && this.table[index].length() == length && this.table[index].regionMatches(0, text, start, length)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Helper method to add a word to the hash table, ignoring duplicates
+	 * @param word the word to add
+	 */
+	private void add(String word) {
+		int hash = word.hashCode();
+		int index = hash & this.mask;
+		for (; this.table[index] != null; index = (index + 1) & this.mask) {
+			if (this.hashes[index] == hash && this.table[index].equals(word)) {
+				return;
+			}
+		}
+		this.table[index] = word;
+		this.hashes[index] = hash;
+	}
+
+}
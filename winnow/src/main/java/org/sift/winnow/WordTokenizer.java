@@ -0,0 +1,184 @@
+/*
+ * Copyright 2012-2015, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sift.winnow;
+
+/**
+ * The <code>WordTokenizer</code> locates words in text by scanning its chars, as an alternative to splitting the text using the {@link StopWords#WORD_BOUNDARY}
+ * regex. Words are the non-empty sequences of chars between word boundaries i.e. runs of ASCII letters and digits. The tokenizer records the start and end
+ * offsets of words in the text and creates a String for a word only when asked to. An instance may be reused for many texts, but is not thread safe.
+ *
+ * @author Regunath B
+ * @version 1.0, 18 Oct 2026
+ */
+public class WordTokenizer {
+
+	/** The text that was last tokenized */
+	private CharSequence text;
+
+	/** Start and end offsets of words in the text, as pairs */
+	private int[] offsets = new int[32];
+
+	/** The number of words in the text */
+	private int wordCount;
+
+	/**
+	 * Locates the words in the specified text, replacing the words located earlier
+	 * @param text the text to tokenize
+	 * @return the number of words found
+	 */
+	public int tokenize(CharSequence text) {
+		this.text = text;
+		this.wordCount = 0;
+		int length = text.length();
+		int index = 0;
+		while (index < length) {
+			while (index < length && !isWordChar(text.charAt(index))) {
+				index++;
+			}
+			if (index == length) {
+				break;
+			}
+			int start = index;
+			while (index < length && isWordChar(text.charAt(index))) {
+				index++;
+			}
+			if (this.wordCount * 2 == this.offsets.length) {
+				int[] offsets = new int[this.offsets.length * 2];
+				System.arraycopy(this.offsets, 0, offsets, 0, this.offsets.length);
+				this.offsets = offsets;
+			}
+			this.offsets[this.wordCount * 2] = start;
+			this.offsets[this.wordCount * 2 + 1] = index;
+			this.wordCount++;
+		}
+		return this.wordCount;
+	}
+
+	/**
+	 * Returns the number of words in the text that was last tokenized
+	 * @return the number of words
+	 */
+	public int getWordCount() {
+		return this.wordCount;
+	}
+
+	/**
+	 * Returns the offset of the first char of a word
+	 * @param index the index of the word
+	 * @return the start offset of the word in the text
+	 */
+	public int getStart(int index) {
+		this.checkIndex(index);
+		return this.offsets[index * 2];
+	}
+
+	/**
+	 * Returns the offset after the last char of a word
+	 * @param index the index of the word
+	 * @return the end offset of the word in the text
+	 */
+	public int getEnd(int index) {
+		this.checkIndex(index);
+		return this.offsets[index * 2 + 1];
+	}
+
+	/**
+	 * Creates a String for a word
+	 * @param index the index of the word
+	 * @return the word
+	 */
+	public String getWord(int index) {
+		return this.text.subSequence(this.getStart(index), this.getEnd(index)).toString();
+	}
+
+	/**
+	 * Returns the text that was last tokenized
+	 * @return the text, null if no text has been tokenized
+	 */
+	public CharSequence getText() {
+		return this.text;
+	}
+
+	/**
+	 * Counts the elements of the array returned by splitting the specified text using the {@link StopWords#WORD_BOUNDARY} regex, without splitting the text.
+	 * Unlike {@link #tokenize(CharSequence)}, the count includes the empty Strings that String.split() returns for leading word boundaries and for
+	 * white space that is directly followed by other word boundary chars.
+	 * @param text the text to count words in
+	 * @return the number of elements that String.split(WORD_BOUNDARY) returns for the text
+	 */
+	public static int countSplitWords(CharSequence text) {
+		int length = text.length();
+		int count = 0;
+		int countToLastWord = 0; // trailing empty Strings are not returned by String.split()
+		boolean boundaryFound = false;
+		int start = 0;
+		int index = 0;
+		while (index < length) {
+			char c = text.charAt(index);
+			if (isWordChar(c)) {
+				index++;
+				continue;
+			}
+			count++;
+			if (index > start) {
+				countToLastWord = count;
+			}
+			boundaryFound = true;
+			// the regex alternation matches a run of white space if the boundary starts with white space, else a run of any boundary chars
+			if (isWhitespace(c)) {
+				while (index < length && isWhitespace(text.charAt(index))) {
+					index++;
+				}
+			} else {
+				while (index < length && !isWordChar(text.charAt(index))) {
+					index++;
+				}
+			}
+			start = index;
+		}
+		count++;
+		if (length > start) {
+			countToLastWord = count;
+		}
+		return boundaryFound ? countToLastWord : 1;
+	}
+
+	/**
+	 * Determines if the specified char is part of a word i.e. is not matched by the {@link StopWords#WORD_BOUNDARY} regex
+	 * @param c the char to check
+	 * @return true if the char is an ASCII letter or digit, false otherwise
+	 */
+	public static boolean isWordChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+	}
+
+	/**
+	 * Helper method to determine if the specified char is matched by the \s regex character class
+	 */
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	/**
+	 * Helper method to check that the specified word index is valid
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= this.wordCount) {
+			throw new IndexOutOfBoundsException("Word index : " + index + ", word count : " + this.wordCount);
+		}
+	}
+
+}